@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import com.ibm.jbatch.tck.spi.JobExecutionStatusWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
+import com.ibm.jbatch.tck.utils.ServiceGateway;
+
+/**
+ * Gives the benchmarks the JobOperator of the runtime under test, configured by runtime.properties
+ * unless configured otherwise, and waits for job executions the way the TCK does, i.e. with the
+ * JobExecutionWaiterFactory of {@link ServiceGateway}.
+ *
+ * The waiters time out after "perf.job.timeout" milliseconds, 15 minutes by default.
+ */
+public final class BatchRuntimeSupport {
+
+	private final static String sourceClass = BatchRuntimeSupport.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	public static final String TIMEOUT_PROPERTY = "perf.job.timeout";
+
+	private static final String RUNTIME_PROPERTIES = "runtime.properties";
+
+	private static JobOperator jobOperator;
+	private static JobExecutionWaiterFactory waiterFactory;
+	private static long timeoutMillis;
+
+	private BatchRuntimeSupport() {
+	}
+
+	public static synchronized JobOperator getJobOperator() {
+		if (jobOperator == null) {
+			loadRuntimeProperties();
+			timeoutMillis = Long.parseLong(System.getProperty(TIMEOUT_PROPERTY, "900000"));
+			jobOperator = BatchRuntime.getJobOperator();
+			waiterFactory = ServiceGateway.getJobExecutionWaiterFactoryService();
+		}
+		return jobOperator;
+	}
+
+	/**
+	 * Starts the job and waits for it to end.
+	 */
+	public static JobExecution startAndWait(String jobName, Properties jobParameters) throws JobExecutionTimeoutException {
+		return await(getJobOperator().start(jobName, jobParameters));
+	}
+
+	/**
+	 * Waits for the execution to end.
+	 */
+	public static JobExecution await(long executionId) throws JobExecutionTimeoutException {
+		JobOperator jobOp = getJobOperator();
+		return waiterFactory.createWaiter(executionId, jobOp, timeoutMillis).awaitTermination();
+	}
+
+	/**
+	 * Waits for the execution to reach one of the batch statuses, or to end.
+	 */
+	public static JobExecution awaitStatus(long executionId, BatchStatus batchStatus, BatchStatus... moreBatchStatuses) throws JobExecutionTimeoutException {
+		JobOperator jobOp = getJobOperator();
+		JobExecutionWaiter waiter = waiterFactory.createWaiter(executionId, jobOp, timeoutMillis);
+		if (!(waiter instanceof JobExecutionStatusWaiter)) {
+			throw new IllegalStateException(waiterFactory.getClass().getName() + " can't wait for intermediate batch statuses");
+		}
+		return ((JobExecutionStatusWaiter) waiter).awaitStatus(EnumSet.of(batchStatus, moreBatchStatuses));
+	}
+
+	/**
+	 * A benchmark measuring a job that didn't complete would measure something else than intended.
+	 */
+	public static JobExecution requireStatus(JobExecution jobExecution, BatchStatus expected) {
+		if (jobExecution.getBatchStatus() != expected) {
+			throw new IllegalStateException("Execution " + jobExecution.getExecutionId() + " of " + jobExecution.getJobName()
+					+ " ended " + jobExecution.getBatchStatus() + " (exit status " + jobExecution.getExitStatus() + "), not " + expected);
+		}
+		return jobExecution;
+	}
+
+	private static void loadRuntimeProperties() {
+		Properties props = new Properties();
+		InputStream in = BatchRuntimeSupport.class.getResourceAsStream(RUNTIME_PROPERTIES);
+		if (in == null) {
+			throw new IllegalStateException("Missing resource: " + RUNTIME_PROPERTIES);
+		}
+		try {
+			try {
+				props.load(in);
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not read: " + RUNTIME_PROPERTIES, e);
+		}
+		for (String name : props.stringPropertyNames()) {
+			if (System.getProperty(name) == null) {
+				System.setProperty(name, props.getProperty(name));
+			}
+		}
+		logger.fine("Runtime configured with: " + props);
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import com.ibm.jbatch.tck.perf.artifacts.CheckpointTimes;
+
+/**
+ * What checkpoints cost the runtime as they grow: each operation runs one job reading and writing
+ * items items, checkpointing every itemCount items, with the reader and the writer both
+ * checkpointing payloadSize bytes, serialized by default serialization or Externalizable.
+ *
+ * Besides the jobs per second, it reports the items and the checkpoints per second. At the end of
+ * each trial, it also prints the commit latency of the checkpoints measured, as defined by
+ * {@link CheckpointTimes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CheckpointPayloadBenchmark {
+
+	public static final String JOB = "perf_checkpoint_payload";
+
+	@Param({"16", "1024", "65536", "1048576"})
+	public int payloadSize;
+
+	@Param({"serializable", "externalizable"})
+	public String encoding;
+
+	@Param({"1", "10", "100", "1000"})
+	public int itemCount;
+
+	@Param({"1000"})
+	public int items;
+
+	private Properties jobParameters;
+	private boolean measuring;
+	private final Samples commits = new Samples();
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BatchRuntimeSupport.getJobOperator();
+		jobParameters = new Properties();
+		jobParameters.setProperty("payload.size", String.valueOf(payloadSize));
+		jobParameters.setProperty("payload.encoding", encoding);
+		jobParameters.setProperty("item.count", String.valueOf(itemCount));
+		jobParameters.setProperty("items", String.valueOf(items));
+	}
+
+	@Setup(Level.Iteration)
+	public void startIteration(IterationParams iterationParams) {
+		measuring = iterationParams.getType() == IterationType.MEASUREMENT;
+	}
+
+	@Benchmark
+	public JobExecution checkpointedStep(Counts counts) throws Exception {
+		CheckpointTimes.take();
+		JobExecution jobExecution = BatchRuntimeSupport.requireStatus(
+				BatchRuntimeSupport.startAndWait(JOB, jobParameters), BatchStatus.COMPLETED);
+		long[] times = CheckpointTimes.take();
+		counts.items += items;
+		counts.checkpoints += times.length;
+		if (measuring) {
+			for (long time : times) {
+				commits.add(time);
+			}
+		}
+		return jobExecution;
+	}
+
+	@TearDown(Level.Trial)
+	public void printCommits() {
+		System.out.println("Checkpoint commit: " + commits);
+	}
+
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Counts {
+
+		public long items;
+		public long checkpoints;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			items = 0;
+			checkpoints = 0;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.jbatch.tck.perf.artifacts.ArrayChunkWriter;
+
+/**
+ * Throughput of the runtime's chunk loop, with the TCK's array reader and processor (those of
+ * job_chunk_checkpoint.xml) and the equivalent {@link ArrayChunkWriter} as the workload: each
+ * operation runs one job reading, processing and writing arraySize items, checkpointing every
+ * itemCount items.
+ *
+ * Both benchmarks run the same jobs, and report the jobs they ran as their primary result and the
+ * items as their "items" secondary result:
+ * <ul>
+ *   <li>itemsPerSecond: in jobs and items per second</li>
+ *   <li>nanosPerItem: in nanoseconds per job and per item, the latter being the runtime's overhead
+ *       per item once the artifacts' own (trivial) work and the fixed cost per job are small in
+ *       comparison, as with large arraySize</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChunkThroughputBenchmark {
+
+	public static final String JOB = "perf_chunk_checkpoint";
+	public static final String JOB_WITHOUT_PROCESSOR = "perf_chunk_checkpoint_noprocessor";
+
+	@Param({"10", "100", "1000"})
+	public int itemCount;
+
+	@Param({"1000", "100000", "1000000"})
+	public int arraySize;
+
+	@Param({"true", "false"})
+	public boolean processor;
+
+	private String jobName;
+	private Properties jobParameters;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BatchRuntimeSupport.getJobOperator();
+		jobName = processor ? JOB : JOB_WITHOUT_PROCESSOR;
+		jobParameters = new Properties();
+		jobParameters.setProperty("item.count", String.valueOf(itemCount));
+		jobParameters.setProperty("app.arraysize", String.valueOf(arraySize));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public JobExecution itemsPerSecond(Items items) throws Exception {
+		return runJob(items);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public JobExecution nanosPerItem(Items items) throws Exception {
+		return runJob(items);
+	}
+
+	private JobExecution runJob(Items items) throws Exception {
+		JobExecution jobExecution = BatchRuntimeSupport.requireStatus(
+				BatchRuntimeSupport.startAndWait(jobName, jobParameters), BatchStatus.COMPLETED);
+		items.items += arraySize;
+		return jobExecution;
+	}
+
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Items {
+
+		public long items;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			items = 0;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Jobs generated by a benchmark, written under META-INF/batch-jobs in a temporary directory and
+ * started with a class loader over it as the thread context class loader, from which the runtime
+ * is expected to load their XML, as the RI does.
+ */
+public class GeneratedJobs implements Closeable {
+
+	private final Path dir;
+	private final URLClassLoader loader;
+
+	public GeneratedJobs() throws IOException {
+		dir = Files.createTempDirectory("perf-jobs");
+		loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, GeneratedJobs.class.getClassLoader());
+	}
+
+	/**
+	 * Writes the job's XML, as META-INF/batch-jobs/<i>jobName</i>.xml.
+	 */
+	public void write(String jobName, String xml) throws IOException {
+		Path jobs = Files.createDirectories(dir.resolve("META-INF/batch-jobs"));
+		Files.write(jobs.resolve(jobName + ".xml"), xml.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Writes a copy of a job on the class path, e.g. of the TCK, under another name.
+	 */
+	public void copyOf(String jobName, String copyName) throws IOException {
+		write(copyName, read(jobName).replace("id=\"" + jobName + "\"", "id=\"" + copyName + "\""));
+	}
+
+	/**
+	 * @return The XML of a job on the class path, e.g. of the TCK.
+	 */
+	public static String read(String jobName) throws IOException {
+		try (InputStream in = GeneratedJobs.class.getClassLoader().getResourceAsStream("META-INF/batch-jobs/" + jobName + ".xml")) {
+			if (in == null) {
+				throw new IllegalStateException("Missing job: " + jobName);
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int read; (read = in.read(buffer)) != -1;) {
+				out.write(buffer, 0, read);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * @return The execution id.
+	 */
+	public long start(String jobName, Properties jobParameters) {
+		Thread thread = Thread.currentThread();
+		ClassLoader contextLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader(loader);
+		try {
+			return BatchRuntimeSupport.getJobOperator().start(jobName, jobParameters);
+		} finally {
+			thread.setContextClassLoader(contextLoader);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		loader.close();
+		try (Stream<Path> paths = Files.walk(dir)) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+}
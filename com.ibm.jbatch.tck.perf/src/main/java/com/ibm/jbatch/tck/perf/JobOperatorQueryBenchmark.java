@@ -0,0 +1,198 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.NoSuchJobException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How the JobOperator queries scale with the history in the job repository, which first gets
+ * instances completed instances of copies of job_batchlet_1step, spread evenly over jobNames names
+ * perf_query_0, perf_query_1, ...
+ *
+ * Populating goes through JobOperator.start(), "perf.populate.threads" jobs at a time (16 by
+ * default), and only adds the instances missing from the repository. Since the RI's repository is
+ * kept under target/jmh between runs, running with increasing instances only pays for the new ones.
+ * A repository already holding more of them than a trial asks for fails that trial rather than
+ * measuring the bigger repository, so going down in size takes deleting target/jmh first.
+ *
+ * JMH samples the time of:
+ * <ul>
+ *   <li>getJobInstanceCount of a job name</li>
+ *   <li>getJobInstances of a job name, for its first and for its last (deepest) pageSize instances</li>
+ *   <li>getJobExecutions of one of its instances</li>
+ *   <li>getJobNames</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JobOperatorQueryBenchmark {
+
+	private final static String sourceClass = JobOperatorQueryBenchmark.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	public static final String TEMPLATE_JOB = "job_batchlet_1step";
+	public static final String THREADS_PROPERTY = "perf.populate.threads";
+	public static final String JOB_NAME_PREFIX = "perf_query_";
+
+	@Param({"10000", "100000", "1000000"})
+	public int instances;
+
+	@Param({"100"})
+	public int jobNames;
+
+	@Param({"100"})
+	public int pageSize;
+
+	private JobOperator jobOp;
+	private int instancesPerName;
+	private final List<JobInstance> sampleInstances = new ArrayList<JobInstance>();
+	private int next;
+
+	@Setup(Level.Trial)
+	public void populate() throws Exception {
+		if (instances % jobNames != 0) {
+			throw new IllegalArgumentException(instances + " instances can't be split evenly between " + jobNames + " job names");
+		}
+		jobOp = BatchRuntimeSupport.getJobOperator();
+		instancesPerName = instances / jobNames;
+		if (pageSize > instancesPerName) {
+			throw new IllegalArgumentException("Pages of " + pageSize + " instances don't fit in the " + instancesPerName + " instances per job name");
+		}
+		checkNotPopulatedBeyond();
+		int threads = Integer.getInteger(THREADS_PROPERTY, 16);
+		try (GeneratedJobs generatedJobs = new GeneratedJobs()) {
+			for (int name = 0; name < jobNames; name++) {
+				String jobName = getJobName(name);
+				int missing = instancesPerName - getInstanceCount(jobName);
+				if (missing > 0) {
+					generatedJobs.copyOf(TEMPLATE_JOB, jobName);
+					logger.info("Adding " + missing + " instances of " + jobName);
+					startAll(generatedJobs, jobName, missing, threads);
+				}
+			}
+		}
+		for (int name = 0; name < jobNames; name++) {
+			sampleInstances.addAll(jobOp.getJobInstances(getJobName(name), instancesPerName / 2, 1));
+		}
+	}
+
+	/**
+	 * Fails if the repository has more job names or more instances per job name than this trial
+	 * populates, as left by an earlier run with bigger parameters.
+	 */
+	private void checkNotPopulatedBeyond() {
+		for (String jobName : jobOp.getJobNames()) {
+			if (!jobName.startsWith(JOB_NAME_PREFIX)) {
+				continue;
+			}
+			int name = Integer.parseInt(jobName.substring(JOB_NAME_PREFIX.length()));
+			int count = getInstanceCount(jobName);
+			if (name >= jobNames || count > instancesPerName) {
+				throw new IllegalStateException("The job repository already has " + count + " instances of " + jobName
+						+ ", beyond the " + instancesPerName + " instances of each of " + jobNames + " job names of this trial; "
+						+ "delete it (under target/jmh) to run with fewer instances or job names");
+			}
+		}
+	}
+
+	private int getInstanceCount(String jobName) {
+		try {
+			return jobOp.getJobInstanceCount(jobName);
+		} catch (NoSuchJobException e) {
+			return 0;
+		}
+	}
+
+	private static void startAll(GeneratedJobs generatedJobs, String jobName, int count, int threads) throws Exception {
+		Properties jobParameters = new Properties();
+		long[] executionIds = new long[threads];
+		for (int started = 0; started < count; started += threads) {
+			int batch = Math.min(threads, count - started);
+			for (int i = 0; i < batch; i++) {
+				executionIds[i] = generatedJobs.start(jobName, jobParameters);
+			}
+			for (int i = 0; i < batch; i++) {
+				BatchRuntimeSupport.requireStatus(BatchRuntimeSupport.await(executionIds[i]), BatchStatus.COMPLETED);
+			}
+		}
+	}
+
+	static String getJobName(int name) {
+		return JOB_NAME_PREFIX + name;
+	}
+
+	private String nextJobName() {
+		next = (next + 1) % jobNames;
+		return getJobName(next);
+	}
+
+	@Benchmark
+	public int getJobInstanceCount() {
+		return jobOp.getJobInstanceCount(nextJobName());
+	}
+
+	@Benchmark
+	public List<JobInstance> getJobInstancesFirstPage() {
+		return jobOp.getJobInstances(nextJobName(), 0, pageSize);
+	}
+
+	@Benchmark
+	public List<JobInstance> getJobInstancesLastPage() {
+		return jobOp.getJobInstances(nextJobName(), instancesPerName - pageSize, pageSize);
+	}
+
+	@Benchmark
+	public List<JobExecution> getJobExecutions() {
+		next = (next + 1) % sampleInstances.size();
+		return jobOp.getJobExecutions(sampleInstances.get(next));
+	}
+
+	@Benchmark
+	public Set<String> getJobNames() {
+		return jobOp.getJobNames();
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import com.ibm.jbatch.tck.perf.artifacts.PartitionStarts;
+
+/**
+ * How well the runtime parallelizes a partitioned chunk step: each operation runs one job whose
+ * step is split by myPartitionMapper into "partitions" partitions, run on "threads" threads (0 for
+ * one per partition), and reading totalItems items between them. Each item costs workNanos of cpu
+ * or io work (see WorkloadItemReader), so the job does the same work whatever the partitions.
+ *
+ * Besides the jobs per second, it reports:
+ * <ul>
+ *   <li>speedup: the seconds of work done per second, i.e. the serial time of the work over the
+ *       time of the job, which plotted against the partitions gives the speedup curve</li>
+ *   <li>efficiency: the speedup over the parallelism, the lesser of the partitions and the threads,
+ *       1 meaning that the runtime adds nothing to the work and runs the partitions all at once</li>
+ * </ul>
+ * The (unitless) speedup and efficiency are shown in ops/s by JMH. Both count the runtime's
+ * overhead against it, including that of the single partition of the baseline.
+ *
+ * At the end of each trial, it also prints the start skew of the partitions measured, i.e. the time
+ * between the first and the last partition to start reading in a job.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PartitionScalingBenchmark {
+
+	public static final String JOB = "perf_partition_scaling";
+
+	@Param({"1", "2", "4", "8", "16", "32", "64", "128", "256", "512"})
+	public int partitions;
+
+	@Param({"0", "1", "8", "64"})
+	public int threads;
+
+	@Param({"cpu", "io"})
+	public String workType;
+
+	@Param({"4096"})
+	public int totalItems;
+
+	@Param({"250000"})
+	public long workNanos;
+
+	@Param({"100"})
+	public int itemCount;
+
+	private Properties jobParameters;
+	private double serialSeconds;
+	private int parallelism;
+	private boolean measuring;
+	private final Samples skews = new Samples();
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		if (totalItems % partitions != 0) {
+			throw new IllegalArgumentException(totalItems + " items can't be split evenly between " + partitions + " partitions");
+		}
+		BatchRuntimeSupport.getJobOperator();
+		jobParameters = new Properties();
+		jobParameters.setProperty("numPartitionsProp", String.valueOf(partitions));
+		jobParameters.setProperty("threadsProp", String.valueOf(threads));
+		jobParameters.setProperty("items.per.partition", String.valueOf(totalItems / partitions));
+		jobParameters.setProperty("work.type", workType);
+		jobParameters.setProperty("work.nanos", String.valueOf(workNanos));
+		jobParameters.setProperty("item.count", String.valueOf(itemCount));
+		serialSeconds = totalItems * workNanos / 1e9;
+		parallelism = threads == 0 ? partitions : Math.min(threads, partitions);
+	}
+
+	@Setup(Level.Iteration)
+	public void startIteration(IterationParams iterationParams) {
+		measuring = iterationParams.getType() == IterationType.MEASUREMENT;
+	}
+
+	@Benchmark
+	public JobExecution partitionedStep(Scaling scaling) throws Exception {
+		PartitionStarts.take();
+		JobExecution jobExecution = BatchRuntimeSupport.requireStatus(
+				BatchRuntimeSupport.startAndWait(JOB, jobParameters), BatchStatus.COMPLETED);
+		long[] starts = PartitionStarts.take();
+		if (starts.length != partitions) {
+			throw new IllegalStateException(starts.length + " partitions started, not " + partitions);
+		}
+		scaling.speedup += serialSeconds;
+		scaling.efficiency += serialSeconds / parallelism;
+		if (measuring) {
+			Arrays.sort(starts);
+			skews.add(starts[starts.length - 1] - starts[0]);
+		}
+		return jobExecution;
+	}
+
+	@TearDown(Level.Trial)
+	public void printSkew() {
+		System.out.println("Partition start skew: " + skews);
+	}
+
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Scaling {
+
+		public double speedup;
+		public double efficiency;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			speedup = 0;
+			efficiency = 0;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchStatus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import com.ibm.jbatch.tck.perf.artifacts.FirstRead;
+
+/**
+ * How long a restart after failure takes to get going again: before each operation, a new job
+ * instance of perf_restart_user_data fails priorExecutions times, each execution failing after
+ * checkpointing checkpointSize bytes, with userDataSize bytes of persistent user data. The
+ * operation then restarts it and ends with the first readItem() of the restarted step, so
+ * that it covers the runtime finding the last execution, reading the step's checkpoint and user
+ * data, and opening the step.
+ *
+ * At the end of each trial, it also prints the time from calling restart() to it returning, and to
+ * the first read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class RestartLatencyBenchmark {
+
+	public static final String JOB = "perf_restart_user_data";
+
+	@Param({"16", "65536", "1048576"})
+	public int userDataSize;
+
+	@Param({"1", "10", "50"})
+	public int priorExecutions;
+
+	@Param({"1024"})
+	public int checkpointSize;
+
+	private Properties failing;
+	private Properties completing;
+	private long failedExecutionId;
+	private long restartedExecutionId;
+	private boolean measuring;
+
+	private final Samples restartReturned = new Samples();
+	private final Samples firstRead = new Samples();
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BatchRuntimeSupport.getJobOperator();
+		failing = new Properties();
+		failing.setProperty("items", "20");
+		failing.setProperty("item.count", "10");
+		// After the first checkpoint, so that every execution has one to restart from
+		failing.setProperty("fail.at", "15");
+		failing.setProperty("checkpoint.size", String.valueOf(checkpointSize));
+		failing.setProperty("user.data.size", String.valueOf(userDataSize));
+		failing.setProperty("fail", "true");
+		completing = new Properties();
+		completing.putAll(failing);
+		completing.setProperty("fail", "false");
+	}
+
+	@Setup(Level.Iteration)
+	public void failExecutions(IterationParams iterationParams) throws Exception {
+		measuring = iterationParams.getType() == IterationType.MEASUREMENT;
+		JobOperator jobOp = BatchRuntimeSupport.getJobOperator();
+		long executionId = jobOp.start(JOB, failing);
+		BatchRuntimeSupport.requireStatus(BatchRuntimeSupport.await(executionId), BatchStatus.FAILED);
+		for (int i = 1; i < priorExecutions; i++) {
+			executionId = jobOp.restart(executionId, failing);
+			BatchRuntimeSupport.requireStatus(BatchRuntimeSupport.await(executionId), BatchStatus.FAILED);
+		}
+		failedExecutionId = executionId;
+		FirstRead.arm();
+	}
+
+	@Benchmark
+	public long restartToFirstRead() throws Exception {
+		long begin = System.nanoTime();
+		restartedExecutionId = BatchRuntimeSupport.getJobOperator().restart(failedExecutionId, completing);
+		long returned = System.nanoTime();
+		long read;
+		while ((read = FirstRead.await(100)) < 0) {
+			BatchStatus status = BatchRuntimeSupport.getJobOperator().getJobExecution(restartedExecutionId).getBatchStatus();
+			if (status != BatchStatus.STARTING && status != BatchStatus.STARTED) {
+				throw new IllegalStateException("Execution " + restartedExecutionId + " ended " + status + " without reading an item");
+			}
+		}
+		if (measuring) {
+			restartReturned.add(returned - begin);
+			firstRead.add(read - begin);
+		}
+		return restartedExecutionId;
+	}
+
+	@TearDown(Level.Iteration)
+	public void awaitRestarted() throws Exception {
+		BatchRuntimeSupport.requireStatus(BatchRuntimeSupport.await(restartedExecutionId), BatchStatus.COMPLETED);
+	}
+
+	@TearDown(Level.Trial)
+	public void printLatencies() {
+		System.out.println("From calling restart() to it returning: " + restartReturned);
+		System.out.println("From calling restart() to the first read: " + firstRead);
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.util.Arrays;
+
+/**
+ * Durations in nanoseconds measured by a benchmark besides its JMH results, summarized in
+ * milliseconds by {@link #toString()}.
+ */
+public class Samples {
+
+	private long[] samples = new long[64];
+	private int count;
+
+	public void add(long nanos) {
+		if (count == samples.length) {
+			samples = Arrays.copyOf(samples, count * 2);
+		}
+		samples[count++] = nanos;
+	}
+
+	public int count() {
+		return count;
+	}
+
+	public void clear() {
+		count = 0;
+	}
+
+	/**
+	 * @return The smallest sample not exceeded by the fraction of the samples, e.g. 0.99 for the p99.
+	 */
+	public long percentile(double fraction) {
+		if (count == 0) {
+			throw new IllegalStateException("No samples");
+		}
+		long[] sorted = Arrays.copyOf(samples, count);
+		Arrays.sort(sorted);
+		return sorted[Math.max((int) Math.ceil(fraction * count) - 1, 0)];
+	}
+
+	public double mean() {
+		long sum = 0;
+		for (int i = 0; i < count; i++) {
+			sum += samples[i];
+		}
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * @return One line per power of two microseconds with samples, giving their count.
+	 */
+	public String toHistogram() {
+		long[] buckets = new long[64];
+		for (int i = 0; i < count; i++) {
+			long micros = samples[i] / 1000;
+			buckets[micros <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros)]++;
+		}
+		StringBuilder histogram = new StringBuilder();
+		for (int bucket = 0; bucket < buckets.length; bucket++) {
+			if (buckets[bucket] > 0) {
+				long from = bucket == 0 ? 0 : 1L << (bucket - 1);
+				histogram.append(String.format("  [%.3f, %.3f) ms: %d%n", from / 1e3, (1L << bucket) / 1e3, buckets[bucket]));
+			}
+		}
+		return histogram.toString();
+	}
+
+	@Override
+	public String toString() {
+		if (count == 0) {
+			return "no samples";
+		}
+		return String.format("p50 %.3f ms, p99 %.3f ms, max %.3f ms, mean %.3f ms (%d samples)", percentile(0.50) / 1e6,
+				percentile(0.99) / 1e6, percentile(1) / 1e6, mean() / 1e6, count);
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+/**
+ * Generates split jobs shaped like split_batchlet_4steps.xml, but with any number of flows of any
+ * number of steps, all running timedBatchlet with the "work.type" and "work.nanos" job parameters:
+ * <ul>
+ *   <li>the "fork" step, doing no work</li>
+ *   <li>the split, whose flow i has the steps "f<i>i</i>s0" to "f<i>i</i>s<i>depth - 1</i>"</li>
+ *   <li>the "join" step, doing no work</li>
+ * </ul>
+ */
+final class SplitJobs {
+
+	private SplitJobs() {
+	}
+
+	static String getJobName(int flows, int depth) {
+		return "perf_split_" + flows + "x" + depth;
+	}
+
+	static String getStepName(int flow, int step) {
+		return "f" + flow + "s" + step;
+	}
+
+	static String toXml(int flows, int depth) {
+		StringBuilder jsl = new StringBuilder();
+		jsl.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		jsl.append("<job id=\"").append(getJobName(flows, depth)).append("\" xmlns=\"http://xmlns.jcp.org/xml/ns/javaee\" version=\"1.0\">\n");
+		appendStep(jsl, "\t", "fork", "split", false);
+		jsl.append("\t<split id=\"split\" next=\"join\">\n");
+		for (int flow = 0; flow < flows; flow++) {
+			jsl.append("\t\t<flow id=\"f").append(flow).append("\">\n");
+			for (int step = 0; step < depth; step++) {
+				appendStep(jsl, "\t\t\t", getStepName(flow, step), step + 1 < depth ? getStepName(flow, step + 1) : null, true);
+			}
+			jsl.append("\t\t</flow>\n");
+		}
+		jsl.append("\t</split>\n");
+		appendStep(jsl, "\t", "join", null, false);
+		jsl.append("</job>\n");
+		return jsl.toString();
+	}
+
+	private static void appendStep(StringBuilder jsl, String indent, String id, String next, boolean work) {
+		jsl.append(indent).append("<step id=\"").append(id).append('"');
+		if (next != null) {
+			jsl.append(" next=\"").append(next).append('"');
+		}
+		jsl.append(">\n");
+		jsl.append(indent).append("\t<batchlet ref=\"timedBatchlet\">\n");
+		jsl.append(indent).append("\t\t<properties>\n");
+		jsl.append(indent).append("\t\t\t<property name=\"work.type\" value=\"")
+				.append(work ? "#{jobParameters['work.type']}" : "io").append("\" />\n");
+		jsl.append(indent).append("\t\t\t<property name=\"work.nanos\" value=\"")
+				.append(work ? "#{jobParameters['work.nanos']}" : "0").append("\" />\n");
+		jsl.append(indent).append("\t\t</properties>\n");
+		jsl.append(indent).append("\t</batchlet>\n");
+		jsl.append(indent).append("</step>\n");
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import com.ibm.jbatch.tck.perf.artifacts.StepTimes;
+
+/**
+ * How the runtime's split engine scales with the flows of a split: each operation runs one job
+ * generated by {@link SplitJobs}, splitting into "flows" flows of "depth" steps, each step doing
+ * workNanos of workType work. Its time is the benchmark's result.
+ *
+ * At the end of each trial, it also prints, over the jobs measured:
+ * <ul>
+ *   <li>the dispatch latency of each flow, from the end of the step before the split to the start
+ *       of the flow's first step, and that of the last flow, i.e. the time to dispatch them all</li>
+ *   <li>the join latency, from the end of the last flow to the start of the step after the split</li>
+ *   <li>the peak concurrency, the most flows running at once, and the effective concurrency, the
+ *       time of the flows over the time from the first flow starting to the last one ending</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SplitScalingBenchmark {
+
+	@Param({"2", "4", "8", "16", "32", "64", "128", "256"})
+	public int flows;
+
+	@Param({"1", "4"})
+	public int depth;
+
+	@Param({"io"})
+	public String workType;
+
+	@Param({"10000000"})
+	public long workNanos;
+
+	private GeneratedJobs generatedJobs;
+	private String jobName;
+	private Properties jobParameters;
+	private boolean measuring;
+
+	private final Samples dispatch = new Samples();
+	private final Samples lastDispatch = new Samples();
+	private final Samples join = new Samples();
+	private int jobs;
+	private double peakConcurrency;
+	private double effectiveConcurrency;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		BatchRuntimeSupport.getJobOperator();
+		generatedJobs = new GeneratedJobs();
+		jobName = SplitJobs.getJobName(flows, depth);
+		generatedJobs.write(jobName, SplitJobs.toXml(flows, depth));
+		jobParameters = new Properties();
+		jobParameters.setProperty("work.type", workType);
+		jobParameters.setProperty("work.nanos", String.valueOf(workNanos));
+	}
+
+	@Setup(Level.Iteration)
+	public void startIteration(IterationParams iterationParams) {
+		measuring = iterationParams.getType() == IterationType.MEASUREMENT;
+	}
+
+	@Benchmark
+	public JobExecution splitJob() throws Exception {
+		StepTimes.take();
+		JobExecution jobExecution = BatchRuntimeSupport.requireStatus(
+				BatchRuntimeSupport.await(generatedJobs.start(jobName, jobParameters)), BatchStatus.COMPLETED);
+		Map<String, long[]> times = StepTimes.take();
+		if (times.size() != flows * depth + 2) {
+			throw new IllegalStateException(times.size() + " steps ran, not " + (flows * depth + 2));
+		}
+		if (measuring) {
+			addTimes(times);
+		}
+		return jobExecution;
+	}
+
+	private void addTimes(Map<String, long[]> times) {
+		long forkEnd = times.get("fork")[1];
+		long firstStart = Long.MAX_VALUE;
+		long lastStart = Long.MIN_VALUE;
+		long lastEnd = Long.MIN_VALUE;
+		long flowTime = 0;
+		// Each flow starting is +1 and ending -1, so that the running sum over time is the concurrency
+		long[][] events = new long[flows * 2][];
+		for (int flow = 0; flow < flows; flow++) {
+			long start = times.get(SplitJobs.getStepName(flow, 0))[0];
+			long end = times.get(SplitJobs.getStepName(flow, depth - 1))[1];
+			dispatch.add(start - forkEnd);
+			firstStart = Math.min(firstStart, start);
+			lastStart = Math.max(lastStart, start);
+			lastEnd = Math.max(lastEnd, end);
+			flowTime += end - start;
+			events[flow * 2] = new long[] { start, 1 };
+			events[flow * 2 + 1] = new long[] { end, -1 };
+		}
+		lastDispatch.add(lastStart - forkEnd);
+		join.add(times.get("join")[0] - lastEnd);
+
+		Arrays.sort(events, new Comparator<long[]>() {
+			@Override
+			public int compare(long[] a, long[] b) {
+				// Ends before starts at the same time
+				return a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]);
+			}
+		});
+		int running = 0;
+		int peak = 0;
+		for (long[] event : events) {
+			running += event[1];
+			peak = Math.max(peak, running);
+		}
+		jobs++;
+		peakConcurrency += peak;
+		effectiveConcurrency += (double) flowTime / (lastEnd - firstStart);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		System.out.println("Flow dispatch: " + dispatch);
+		System.out.println("All flows dispatched: " + lastDispatch);
+		System.out.println("Join: " + join);
+		if (jobs > 0) {
+			System.out.printf("Concurrency of %d flows: peak %.1f, effective %.1f (mean of %d jobs)%n", flows, peakConcurrency / jobs,
+					effectiveConcurrency / jobs, jobs);
+		}
+		generatedJobs.close();
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+/**
+ * The runtime's fixed cost per job: each operation starts job_batchlet_1step, a single batchlet
+ * doing nothing, and waits for it to complete.
+ * <ul>
+ *   <li>warmStart: starts job_batchlet_1step itself, whose XML the runtime loaded before</li>
+ *   <li>firstStart: starts a copy of job_batchlet_1step under a name never started before, so
+ *       that each start includes loading its XML, as the first start of each job name does</li>
+ * </ul>
+ * JMH samples the time to COMPLETED. At the end of each trial, it also prints the percentiles and
+ * the histogram of the times measured from calling start() to:
+ * <ul>
+ *   <li>start() returning</li>
+ *   <li>the execution being STARTED, or already ended if it ended between two polls</li>
+ *   <li>the execution being COMPLETED</li>
+ * </ul>
+ * The TCK's execution waiters poll every 50 microseconds here, which bounds the resolution of the
+ * last two.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Dtck.execution.waiter.poll.initial=0.05", "-Dtck.execution.waiter.poll.max=0.05" })
+public class StartLatencyBenchmark {
+
+	public static final String JOB = "job_batchlet_1step";
+
+	private final Properties jobParameters = new Properties();
+	private boolean measuring;
+
+	private final Samples startReturned = new Samples();
+	private final Samples started = new Samples();
+	private final Samples completed = new Samples();
+	private int endedBeforeStarted;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		BatchRuntimeSupport.getJobOperator();
+	}
+
+	@Setup(Level.Iteration)
+	public void startIteration(IterationParams iterationParams) {
+		measuring = iterationParams.getType() == IterationType.MEASUREMENT;
+	}
+
+	@Benchmark
+	public JobExecution warmStart() throws Exception {
+		return run(() -> BatchRuntimeSupport.getJobOperator().start(JOB, jobParameters));
+	}
+
+	@Benchmark
+	public JobExecution firstStart(NewJob newJob) throws Exception {
+		return run(() -> newJob.generatedJobs.start(newJob.jobName, jobParameters));
+	}
+
+	private JobExecution run(LongSupplier start) throws Exception {
+		long begin = System.nanoTime();
+		long executionId = start.getAsLong();
+		long returned = System.nanoTime();
+		BatchStatus status = BatchRuntimeSupport.awaitStatus(executionId, BatchStatus.STARTED).getBatchStatus();
+		long startedOrEnded = System.nanoTime();
+		JobExecution jobExecution = BatchRuntimeSupport.requireStatus(BatchRuntimeSupport.await(executionId), BatchStatus.COMPLETED);
+		long end = System.nanoTime();
+		if (measuring) {
+			startReturned.add(returned - begin);
+			started.add(startedOrEnded - begin);
+			completed.add(end - begin);
+			if (status != BatchStatus.STARTED) {
+				endedBeforeStarted++;
+			}
+		}
+		return jobExecution;
+	}
+
+	@TearDown(Level.Trial)
+	public void printLatencies(BenchmarkParams benchmarkParams) {
+		String benchmark = benchmarkParams.getBenchmark();
+		System.out.println(benchmark.substring(benchmark.lastIndexOf('.') + 1) + " latencies, from calling start():");
+		print("start() returned", startReturned);
+		print("STARTED", started);
+		if (endedBeforeStarted > 0) {
+			System.out.println("  (" + endedBeforeStarted + " executions ended before being seen STARTED)");
+		}
+		print("COMPLETED", completed);
+	}
+
+	private static void print(String event, Samples samples) {
+		System.out.print("To " + event + ": " + samples + "\n" + samples.toHistogram());
+	}
+
+	/**
+	 * A copy of job_batchlet_1step under a new name for each invocation.
+	 */
+	@State(Scope.Benchmark)
+	public static class NewJob {
+
+		private GeneratedJobs generatedJobs;
+		private int copies;
+		String jobName;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException {
+			generatedJobs = new GeneratedJobs();
+		}
+
+		@Setup(Level.Invocation)
+		public void nextJob() throws IOException {
+			jobName = "perf_" + JOB + "_" + ++copies;
+			generatedJobs.copyOf(JOB, jobName);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			generatedJobs.close();
+		}
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import com.ibm.jbatch.tck.artifacts.common.SignalBulletinBoard;
+import com.ibm.jbatch.tck.perf.artifacts.StopTimedBatchlet;
+import com.ibm.jbatch.tck.perf.artifacts.StopTimes;
+import com.ibm.jbatch.tck.perf.artifacts.ChunkStartedListener;
+
+/**
+ * How long a stop takes to get through: before each operation, a job is started and left running
+ * until all its partitions are busy, and the operation then stops it and waits for it to be STOPPED.
+ * <ul>
+ *   <li>batchlet: job_batchlet_longrunning with a single partition, or else
+ *       job_batchlet_longrunning_partitioned with that many, their myLongRunningBatchlet looping
+ *       indefinitely until stopped, as {@link StopTimedBatchlet}</li>
+ *   <li>chunk: perf_stop_chunk with a single partition, or else perf_stop_chunk_partitioned with
+ *       that many, reading items of workNanos of io work each forever, itemCount items per chunk</li>
+ * </ul>
+ * JMH times the operation, from calling stop() to STOPPED. At the end of each trial, it also prints
+ * the percentiles and the histogram of the times measured from calling stop() to:
+ * <ul>
+ *   <li>stop() returning</li>
+ *   <li>stop() being invoked on the batchlet of the last partition (batchlet only)</li>
+ *   <li>the last partition ending its work, i.e. its batchlet returning, or its step listener's
+ *       reader being closed for chunks</li>
+ *   <li>the execution being STOPPED</li>
+ * </ul>
+ * The TCK's execution waiters poll every 50 microseconds here, which bounds the resolution of the
+ * last one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = { "-Dtck.execution.waiter.poll.initial=0.05", "-Dtck.execution.waiter.poll.max=0.05" })
+public class StopLatencyBenchmark {
+
+	public static final String BATCHLET_JOB = "job_batchlet_longrunning";
+	public static final String PARTITIONED_BATCHLET_JOB = "job_batchlet_longrunning_partitioned";
+	public static final String CHUNK_JOB = "perf_stop_chunk";
+	public static final String PARTITIONED_CHUNK_JOB = "perf_stop_chunk_partitioned";
+
+	private static final String STEP = "step1";
+
+	private boolean measuring;
+
+	private final Samples stopReturned = new Samples();
+	private final Samples stopInvoked = new Samples();
+	private final Samples lastEnded = new Samples();
+	private final Samples stopped = new Samples();
+
+	@Setup(Level.Iteration)
+	public void startIteration(IterationParams iterationParams) {
+		measuring = iterationParams.getType() == IterationType.MEASUREMENT;
+	}
+
+	@Benchmark
+	public JobExecution batchlet(RunningBatchlet job) throws Exception {
+		return stop(job.executionId, job.partitions, true);
+	}
+
+	@Benchmark
+	public JobExecution chunk(RunningChunk job) throws Exception {
+		return stop(job.executionId, job.partitions, false);
+	}
+
+	private JobExecution stop(long executionId, int partitions, boolean batchlet) throws Exception {
+		long begin = System.nanoTime();
+		BatchRuntimeSupport.getJobOperator().stop(executionId);
+		long returned = System.nanoTime();
+		JobExecution jobExecution = BatchRuntimeSupport.requireStatus(BatchRuntimeSupport.await(executionId), BatchStatus.STOPPED);
+		long end = System.nanoTime();
+		if (StopTimes.getEnded() != partitions) {
+			throw new IllegalStateException(StopTimes.getEnded() + " of the " + partitions + " partitions of execution " + executionId + " ended");
+		}
+		if (measuring) {
+			stopReturned.add(returned - begin);
+			if (batchlet) {
+				stopInvoked.add(StopTimes.getLastStopInvoked() - begin);
+			}
+			lastEnded.add(StopTimes.getLastEnded() - begin);
+			stopped.add(end - begin);
+		}
+		return jobExecution;
+	}
+
+	@TearDown(Level.Trial)
+	public void printLatencies() {
+		print("stop() returning", stopReturned);
+		if (stopInvoked.count() > 0) {
+			print("stop() invoked on the last batchlet", stopInvoked);
+		}
+		print("the last partition ending", lastEnded);
+		print("STOPPED", stopped);
+	}
+
+	private static void print(String event, Samples samples) {
+		System.out.println("From calling stop() to " + event + ": " + samples);
+		System.out.print(samples.toHistogram());
+	}
+
+	/**
+	 * Waits for the signal to be posted by each partition of the execution, which must not end first.
+	 */
+	static void awaitRunning(long executionId, String signalName, int partitions) throws Exception {
+		while (!SignalBulletinBoard.await(executionId, STEP, signalName, partitions, 100)) {
+			BatchStatus status = BatchRuntimeSupport.getJobOperator().getJobExecution(executionId).getBatchStatus();
+			if (status != BatchStatus.STARTING && status != BatchStatus.STARTED) {
+				throw new IllegalStateException("Execution " + executionId + " ended " + status + " before all its partitions were running");
+			}
+		}
+		SignalBulletinBoard.clear(executionId);
+	}
+
+	@State(Scope.Benchmark)
+	public static class RunningBatchlet {
+
+		@Param({"1", "4", "16"})
+		public int partitions;
+
+		private GeneratedJobs generatedJobs;
+		private String jobName;
+		private final Properties jobParameters = new Properties();
+		long executionId;
+
+		@Setup(Level.Trial)
+		public void generateJob() throws IOException {
+			String template = partitions == 1 ? BATCHLET_JOB : PARTITIONED_BATCHLET_JOB;
+			String xml = GeneratedJobs.read(template);
+			if (partitions != 1) {
+				String plan = "partitions=\"4\"";
+				if (!xml.contains(plan)) {
+					throw new IllegalStateException(template + " no longer has a plan of 4 partitions to replace");
+				}
+				xml = xml.replace(plan, "partitions=\"" + partitions + "\"");
+			}
+			jobName = "perf_stop_batchlet_" + partitions;
+			generatedJobs = new GeneratedJobs();
+			generatedJobs.write(jobName, xml.replace("id=\"" + template + "\"", "id=\"" + jobName + "\"")
+					.replace("ref=\"myLongRunningBatchlet\"", "ref=\"stopTimedBatchlet\""));
+			jobParameters.setProperty("run.indefinitely", "true");
+		}
+
+		@Setup(Level.Iteration)
+		public void start() throws Exception {
+			StopTimes.reset();
+			executionId = generatedJobs.start(jobName, jobParameters);
+			awaitRunning(executionId, SignalBulletinBoard.BATCHLET_ENTERED_LOOP, partitions);
+		}
+
+		@TearDown(Level.Trial)
+		public void deleteJob() throws IOException {
+			generatedJobs.close();
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class RunningChunk {
+
+		@Param({"1", "4", "16"})
+		public int partitions;
+
+		@Param({"1", "10", "100"})
+		public int itemCount;
+
+		@Param({"1000000"})
+		public long workNanos;
+
+		private String jobName;
+		private final Properties jobParameters = new Properties();
+		long executionId;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			jobName = partitions == 1 ? CHUNK_JOB : PARTITIONED_CHUNK_JOB;
+			jobParameters.setProperty("item.count", String.valueOf(itemCount));
+			jobParameters.setProperty("work.type", "io");
+			jobParameters.setProperty("work.nanos", String.valueOf(workNanos));
+			jobParameters.setProperty("numPartitionsProp", String.valueOf(partitions));
+		}
+
+		@Setup(Level.Iteration)
+		public void start() throws Exception {
+			StopTimes.reset();
+			executionId = BatchRuntimeSupport.getJobOperator().start(jobName, jobParameters);
+			awaitRunning(executionId, ChunkStartedListener.CHUNK_STARTED, partitions);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import com.ibm.jbatch.tck.artifacts.chunktypes.ArrayIndexCheckpointData;
+import com.ibm.jbatch.tck.artifacts.chunktypes.ReadRecord;
+import com.ibm.jbatch.tck.artifacts.reusable.MyPersistentRestartUserData;
+
+/**
+ * The TCK's doSomethingSimpleArrayWriter for "app.arraysize" items, checkpointing and counting the
+ * executions for doSomethingArrayItemReaderImpl the same way, but computing the chunk boundaries it
+ * checks from the "item.count" instead of parsing them from a job parameter listing each of them,
+ * and without logging.
+ */
+@Named("arrayChunkWriter")
+public class ArrayChunkWriter extends AbstractItemWriter {
+
+	@Inject
+	@BatchProperty(name = "app.arraysize")
+	String arraySizeString;
+
+	@Inject
+	@BatchProperty(name = "item.count")
+	String itemCountString;
+
+	@Inject
+	StepContext stepCtx;
+
+	private int[] writerDataArray;
+	private int itemCount;
+	private int idx;
+
+	@Override
+	public void open(Serializable checkpoint) throws Exception {
+		MyPersistentRestartUserData userData = (MyPersistentRestartUserData) stepCtx.getPersistentUserData();
+		stepCtx.setPersistentUserData(new MyPersistentRestartUserData(userData == null ? 1 : userData.getExecutionNumber() + 1, null));
+		writerDataArray = new int[Integer.parseInt(arraySizeString)];
+		itemCount = Integer.parseInt(itemCountString);
+		idx = checkpoint == null ? 0 : ((ArrayIndexCheckpointData) checkpoint).getCurrentIndex();
+	}
+
+	@Override
+	public void writeItems(List<Object> items) throws Exception {
+		int expectedSize = Math.min(itemCount, writerDataArray.length - idx);
+		if (idx % itemCount != 0 || items.size() != expectedSize) {
+			throw new IllegalStateException("Chunk of " + items.size() + " items at index " + idx
+					+ ", expected " + expectedSize + " items at a multiple of " + itemCount);
+		}
+		for (Object item : items) {
+			writerDataArray[idx++] = ((ReadRecord) item).getCount();
+		}
+	}
+
+	@Override
+	public Serializable checkpointInfo() throws Exception {
+		ArrayIndexCheckpointData checkpointData = new ArrayIndexCheckpointData();
+		checkpointData.setCurrentIndex(idx);
+		return checkpointData;
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.io.Serializable;
+import java.util.Random;
+
+/**
+ * A checkpoint of the items done so far, padded with random bytes to the size of the checkpoints of
+ * a reader or writer with real state to keep, serialized by default Java serialization.
+ *
+ * The RI can't read it back, failing to resolve the byte[] class, so restarts need the
+ * {@link ExternalizableCheckpointPayload}.
+ */
+public class CheckpointPayload implements Serializable {
+
+	private final static long serialVersionUID = 1L;
+
+	protected int index;
+	protected byte[] bytes;
+
+	public CheckpointPayload() {
+	}
+
+	/**
+	 * @param encoding serializable for a CheckpointPayload, externalizable for an
+	 *        {@link ExternalizableCheckpointPayload}
+	 */
+	public static CheckpointPayload create(String encoding, int size) {
+		CheckpointPayload payload;
+		if ("serializable".equals(encoding)) {
+			payload = new CheckpointPayload();
+		} else if ("externalizable".equals(encoding)) {
+			payload = new ExternalizableCheckpointPayload();
+		} else {
+			throw new IllegalArgumentException("payload.encoding must be serializable or externalizable, not: " + encoding);
+		}
+		// Random, so that the job repository can't compress it away
+		payload.bytes = new byte[size];
+		new Random(size).nextBytes(payload.bytes);
+		return payload;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public void setIndex(int index) {
+		this.index = index;
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.io.Serializable;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Reads "items" items, doing no work, and checkpoints a {@link CheckpointPayload} of
+ * "payload.size" bytes in the "payload.encoding".
+ */
+@Named("checkpointPayloadReader")
+public class CheckpointPayloadReader extends AbstractItemReader {
+
+	@Inject
+	@BatchProperty(name = "items")
+	String itemsString;
+
+	@Inject
+	@BatchProperty(name = "payload.size")
+	String payloadSizeString;
+
+	@Inject
+	@BatchProperty(name = "payload.encoding")
+	String payloadEncoding;
+
+	private int items;
+	private CheckpointPayload payload;
+
+	@Override
+	public void open(Serializable checkpoint) throws Exception {
+		items = Integer.parseInt(itemsString);
+		payload = CheckpointPayload.create(payloadEncoding, Integer.parseInt(payloadSizeString));
+		if (checkpoint != null) {
+			payload.setIndex(((CheckpointPayload) checkpoint).getIndex());
+		}
+	}
+
+	@Override
+	public Object readItem() throws Exception {
+		int index = payload.getIndex();
+		if (index == items) {
+			return null;
+		}
+		payload.setIndex(index + 1);
+		return index;
+	}
+
+	@Override
+	public Serializable checkpointInfo() throws Exception {
+		CheckpointTimes.checkpointStarted();
+		return payload;
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Writes nothing but counts the items written, and checkpoints a {@link CheckpointPayload} of
+ * "payload.size" bytes in the "payload.encoding" holding the count.
+ */
+@Named("checkpointPayloadWriter")
+public class CheckpointPayloadWriter extends AbstractItemWriter {
+
+	@Inject
+	@BatchProperty(name = "payload.size")
+	String payloadSizeString;
+
+	@Inject
+	@BatchProperty(name = "payload.encoding")
+	String payloadEncoding;
+
+	private CheckpointPayload payload;
+
+	@Override
+	public void open(Serializable checkpoint) throws Exception {
+		payload = CheckpointPayload.create(payloadEncoding, Integer.parseInt(payloadSizeString));
+		if (checkpoint != null) {
+			payload.setIndex(((CheckpointPayload) checkpoint).getIndex());
+		}
+	}
+
+	@Override
+	public void writeItems(List<Object> items) throws Exception {
+		payload.setIndex(payload.getIndex() + items.size());
+	}
+
+	@Override
+	public Serializable checkpointInfo() throws Exception {
+		CheckpointTimes.checkpointStarted();
+		return payload;
+	}
+}
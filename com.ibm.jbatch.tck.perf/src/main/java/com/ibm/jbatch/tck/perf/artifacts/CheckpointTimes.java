@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+/**
+ * The time each checkpoint of the running job took, for the benchmark to take once the job ended.
+ *
+ * A checkpoint starts with the first checkpointInfo() call of its chunk and ends with the next
+ * beforeChunk(), or afterStep() for the last one. This covers collecting, serializing and
+ * persisting the checkpoints and committing the chunk, whether the runtime calls afterChunk()
+ * before the checkpoint, as the RI does, or after the commit.
+ */
+public final class CheckpointTimes {
+
+	private static long checkpointStart;
+	private static long[] times = new long[64];
+	private static int count;
+
+	private CheckpointTimes() {
+	}
+
+	/**
+	 * Called by checkpointInfo(), only the first call of a chunk counts.
+	 */
+	public static synchronized void checkpointStarted() {
+		if (checkpointStart == 0) {
+			checkpointStart = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Called by beforeChunk() and afterStep().
+	 */
+	public static synchronized void checkpointEnded() {
+		if (checkpointStart == 0) {
+			return;
+		}
+		if (count == times.length) {
+			long[] grown = new long[count * 2];
+			System.arraycopy(times, 0, grown, 0, count);
+			times = grown;
+		}
+		times[count++] = System.nanoTime() - checkpointStart;
+		checkpointStart = 0;
+	}
+
+	/**
+	 * @return The times recorded since the last call, and forgets them.
+	 */
+	public static synchronized long[] take() {
+		long[] taken = new long[count];
+		System.arraycopy(times, 0, taken, 0, count);
+		count = 0;
+		checkpointStart = 0;
+		return taken;
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import javax.batch.api.chunk.listener.ChunkListener;
+import javax.batch.api.listener.StepListener;
+import javax.inject.Named;
+
+/**
+ * Ends the {@link CheckpointTimes} of each chunk.
+ */
+@Named("checkpointTimesListener")
+public class CheckpointTimesListener implements ChunkListener, StepListener {
+
+	@Override
+	public void beforeStep() throws Exception {
+	}
+
+	@Override
+	public void beforeChunk() throws Exception {
+		CheckpointTimes.checkpointEnded();
+	}
+
+	@Override
+	public void onError(Exception ex) throws Exception {
+	}
+
+	@Override
+	public void afterChunk() throws Exception {
+	}
+
+	@Override
+	public void afterStep() throws Exception {
+		CheckpointTimes.checkpointEnded();
+	}
+}
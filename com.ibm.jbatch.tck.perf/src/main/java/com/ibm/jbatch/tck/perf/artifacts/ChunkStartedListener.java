@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import javax.batch.api.chunk.listener.AbstractChunkListener;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import com.ibm.jbatch.tck.artifacts.common.SignalBulletinBoard;
+
+/**
+ * Posts {@link #CHUNK_STARTED} to the {@link SignalBulletinBoard} before the first chunk of its
+ * step or partition.
+ */
+@Named("chunkStartedListener")
+public class ChunkStartedListener extends AbstractChunkListener {
+
+	public static final String CHUNK_STARTED = "perf.chunk.started";
+
+	@Inject
+	JobContext jobCtx;
+
+	@Inject
+	StepContext stepCtx;
+
+	private boolean started;
+
+	@Override
+	public void beforeChunk() throws Exception {
+		if (!started) {
+			started = true;
+			SignalBulletinBoard.signal(jobCtx.getExecutionId(), stepCtx.getStepName(), CHUNK_STARTED);
+		}
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.util.List;
+
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.inject.Named;
+
+/**
+ * Writes nothing, so that the benchmarks measure the runtime and their readers only.
+ */
+@Named("discardingItemWriter")
+public class DiscardingItemWriter extends AbstractItemWriter {
+
+	@Override
+	public void writeItems(List<Object> items) throws Exception {
+	}
+}
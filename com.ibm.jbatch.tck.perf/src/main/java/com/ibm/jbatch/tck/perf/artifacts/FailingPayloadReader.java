@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.io.Serializable;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Reads "items" items, checkpointing an {@link ExternalizableCheckpointPayload} of "checkpoint.size"
+ * bytes, and keeps one of "user.data.size" bytes as persistent user data, the way BatchletUsingStepContextImpl keeps
+ * MyPersistentUserData. When "fail" is true, it fails on reading item "fail.at", so that each
+ * restart fails at the same point until restarted with "fail" false.
+ *
+ * Its first readItem() of each execution signals {@link FirstRead}.
+ */
+@Named("failingPayloadReader")
+public class FailingPayloadReader extends AbstractItemReader {
+
+	@Inject
+	@BatchProperty(name = "items")
+	String itemsString;
+
+	@Inject
+	@BatchProperty(name = "fail")
+	String failString;
+
+	@Inject
+	@BatchProperty(name = "fail.at")
+	String failAtString;
+
+	@Inject
+	@BatchProperty(name = "checkpoint.size")
+	String checkpointSizeString;
+
+	@Inject
+	@BatchProperty(name = "user.data.size")
+	String userDataSizeString;
+
+	@Inject
+	StepContext stepCtx;
+
+	private int items;
+	private boolean fail;
+	private int failAt;
+	private CheckpointPayload checkpoint;
+	private boolean read;
+
+	@Override
+	public void open(Serializable previousCheckpoint) throws Exception {
+		items = Integer.parseInt(itemsString);
+		fail = Boolean.parseBoolean(failString);
+		failAt = Integer.parseInt(failAtString);
+		checkpoint = CheckpointPayload.create("externalizable", Integer.parseInt(checkpointSizeString));
+		if (previousCheckpoint != null) {
+			checkpoint.setIndex(((CheckpointPayload) previousCheckpoint).getIndex());
+		}
+		// On restart, the runtime has the user data of the previous execution
+		if (stepCtx.getPersistentUserData() == null) {
+			stepCtx.setPersistentUserData(CheckpointPayload.create("externalizable", Integer.parseInt(userDataSizeString)));
+		}
+	}
+
+	@Override
+	public Object readItem() throws Exception {
+		if (!read) {
+			read = true;
+			FirstRead.read();
+		}
+		int index = checkpoint.getIndex();
+		if (index == items) {
+			return null;
+		}
+		if (fail && index == failAt) {
+			throw new Exception("Fail on purpose in FailingPayloadReader.readItem() at item " + index);
+		}
+		checkpoint.setIndex(index + 1);
+		return index;
+	}
+
+	@Override
+	public Serializable checkpointInfo() throws Exception {
+		return checkpoint;
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signals the first readItem() call of a reader, once armed by the benchmark waiting for it.
+ */
+public final class FirstRead {
+
+	private static volatile CountDownLatch latch;
+	private static volatile long readNanos;
+
+	private FirstRead() {
+	}
+
+	/**
+	 * Makes the next first read signal.
+	 */
+	public static void arm() {
+		latch = new CountDownLatch(1);
+	}
+
+	/**
+	 * Called by the first readItem() of a reader, and ignored unless armed.
+	 */
+	public static void read() {
+		CountDownLatch armed = latch;
+		if (armed != null && armed.getCount() > 0) {
+			readNanos = System.nanoTime();
+			armed.countDown();
+		}
+	}
+
+	/**
+	 * @return The System.nanoTime() of the first read, or -1 if there was none within the timeout.
+	 */
+	public static long await(long timeoutMillis) throws InterruptedException {
+		return latch.await(timeoutMillis, TimeUnit.MILLISECONDS) ? readNanos : -1;
+	}
+}
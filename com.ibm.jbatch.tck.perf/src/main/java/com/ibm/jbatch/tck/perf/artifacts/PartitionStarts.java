@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The System.nanoTime() at which the readers of the running job were opened, i.e. at which its
+ * partitions started reading, for the benchmark to take once the job ended.
+ */
+public final class PartitionStarts {
+
+	private static final List<Long> starts = new ArrayList<Long>();
+
+	private PartitionStarts() {
+	}
+
+	public static synchronized void record(long nanoTime) {
+		starts.add(nanoTime);
+	}
+
+	/**
+	 * @return The start times recorded since the last call, and forgets them.
+	 */
+	public static synchronized long[] take() {
+		long[] taken = new long[starts.size()];
+		for (int i = 0; i < taken.length; i++) {
+			taken[i] = starts.get(i);
+		}
+		starts.clear();
+		return taken;
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The System.nanoTime() at which the steps of the running job started and ended their work, by
+ * step name, for the benchmark to take once the job ended.
+ */
+public final class StepTimes {
+
+	private static final Map<String, long[]> times = new HashMap<String, long[]>();
+
+	private StepTimes() {
+	}
+
+	public static synchronized void record(String stepName, long start, long end) {
+		times.put(stepName, new long[] { start, end });
+	}
+
+	/**
+	 * @return The start and end of the steps recorded since the last call, and forgets them.
+	 */
+	public static synchronized Map<String, long[]> take() {
+		Map<String, long[]> taken = new HashMap<String, long[]>(times);
+		times.clear();
+		return taken;
+	}
+}
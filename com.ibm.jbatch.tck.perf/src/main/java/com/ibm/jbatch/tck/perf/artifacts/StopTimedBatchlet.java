@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import javax.inject.Named;
+
+import com.ibm.jbatch.tck.artifacts.specialized.MyLongRunningBatchletImpl;
+
+/**
+ * The TCK's myLongRunningBatchlet, recording with {@link StopTimes} when its stop() is invoked and
+ * when its process() returns.
+ */
+@Named("stopTimedBatchlet")
+public class StopTimedBatchlet extends MyLongRunningBatchletImpl {
+
+	@Override
+	public String process() throws Exception {
+		try {
+			return super.process();
+		} finally {
+			StopTimes.ended(System.nanoTime());
+		}
+	}
+
+	@Override
+	public void stop() throws Exception {
+		StopTimes.stopInvoked(System.nanoTime());
+		super.stop();
+	}
+}
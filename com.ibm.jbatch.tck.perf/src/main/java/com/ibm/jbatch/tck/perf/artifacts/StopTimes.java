@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+/**
+ * The System.nanoTime() at which the steps, or partitions, of the running job had their batchlet's
+ * stop() invoked and ended their work, the last of each being kept until the benchmark resets them
+ * before its next job.
+ */
+public final class StopTimes {
+
+	private static long lastStopInvoked;
+	private static long lastEnded;
+	private static int ended;
+
+	private StopTimes() {
+	}
+
+	public static synchronized void reset() {
+		lastStopInvoked = 0;
+		lastEnded = 0;
+		ended = 0;
+	}
+
+	public static synchronized void stopInvoked(long nanoTime) {
+		lastStopInvoked = Math.max(lastStopInvoked, nanoTime);
+	}
+
+	public static synchronized void ended(long nanoTime) {
+		lastEnded = Math.max(lastEnded, nanoTime);
+		ended++;
+	}
+
+	/**
+	 * @return The last stop() invocation since the reset, or 0 if there was none.
+	 */
+	public static synchronized long getLastStopInvoked() {
+		return lastStopInvoked;
+	}
+
+	/**
+	 * @return The last end since the reset, or 0 if there was none.
+	 */
+	public static synchronized long getLastEnded() {
+		return lastEnded;
+	}
+
+	/**
+	 * @return The number of steps or partitions that ended since the reset.
+	 */
+	public static synchronized int getEnded() {
+		return ended;
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import javax.batch.api.AbstractBatchlet;
+import javax.batch.api.BatchProperty;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Does "work.nanos" nanoseconds of {@link Work} of the "work.type", and records when its step
+ * started and ended with {@link StepTimes}.
+ */
+@Named("timedBatchlet")
+public class TimedBatchlet extends AbstractBatchlet {
+
+	@Inject
+	@BatchProperty(name = "work.type")
+	String workType;
+
+	@Inject
+	@BatchProperty(name = "work.nanos")
+	String workNanosString;
+
+	@Inject
+	StepContext stepCtx;
+
+	@Override
+	public String process() throws Exception {
+		long start = System.nanoTime();
+		new Work(workType, workNanosString).run();
+		StepTimes.record(stepCtx.getStepName(), start, System.nanoTime());
+		return null;
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The simulated work of the benchmark artifacts, given by their "work.type" and "work.nanos"
+ * properties:
+ * <ul>
+ *   <li>cpu: spinning for that much CPU time of the current thread, so that threads sharing a core
+ *       take longer</li>
+ *   <li>io: parking for that much wall time, as a thread blocked on I/O would</li>
+ * </ul>
+ */
+public final class Work {
+
+	private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final boolean cpu;
+	private final long nanos;
+
+	public Work(String type, String nanos) {
+		if ("cpu".equals(type)) {
+			if (!threads.isCurrentThreadCpuTimeSupported()) {
+				throw new IllegalStateException("The JVM doesn't measure the CPU time of threads, so cpu work can't be simulated");
+			}
+			cpu = true;
+		} else if ("io".equals(type)) {
+			cpu = false;
+		} else {
+			throw new IllegalArgumentException("work.type must be cpu or io, not: " + type);
+		}
+		this.nanos = Long.parseLong(nanos);
+	}
+
+	public void run() {
+		if (cpu) {
+			long end = threads.getCurrentThreadCpuTime() + nanos;
+			while (threads.getCurrentThreadCpuTime() < end) {
+				// Burn the CPU time
+			}
+		} else {
+			long end = System.nanoTime() + nanos;
+			for (long left = nanos; left > 0; left = end - System.nanoTime()) {
+				LockSupport.parkNanos(left);
+			}
+		}
+	}
+}
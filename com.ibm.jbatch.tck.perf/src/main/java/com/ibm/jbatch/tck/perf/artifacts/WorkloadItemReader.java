@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.perf.artifacts;
+
+import java.io.Serializable;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Reads "items" items, each costing "work.nanos" nanoseconds of {@link Work} of the "work.type".
+ * Its checkpoint is the index of the next item, and it records when it is opened with
+ * {@link PartitionStarts}.
+ */
+@Named("workloadItemReader")
+public class WorkloadItemReader extends AbstractItemReader {
+
+	@Inject
+	@BatchProperty(name = "items")
+	String itemsString;
+
+	@Inject
+	@BatchProperty(name = "work.type")
+	String workType;
+
+	@Inject
+	@BatchProperty(name = "work.nanos")
+	String workNanosString;
+
+	private int items;
+	private Work work;
+	private int index;
+
+	@Override
+	public void open(Serializable checkpoint) throws Exception {
+		PartitionStarts.record(System.nanoTime());
+		items = Integer.parseInt(itemsString);
+		work = new Work(workType, workNanosString);
+		index = checkpoint == null ? 0 : (Integer) checkpoint;
+	}
+
+	@Override
+	public Object readItem() throws Exception {
+		if (index == items) {
+			return null;
+		}
+		work.run();
+		return index++;
+	}
+
+	@Override
+	public Serializable checkpointInfo() throws Exception {
+		return index;
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+/**
+ * Optional extension of JobExecutionWaiter which waits without blocking the caller.
+ * 
+ * <p>
+ * A waiter which doesn't implement this interface can still be waited on asynchronously 
+ * by wrapping it in an {@link AsyncJobExecutionWaiterAdapter}.
+ */
+public interface AsyncJobExecutionWaiter extends JobExecutionWaiter {
+	/**
+	 * Start waiting for the JobExecution to reach a "final" state, returning immediately.
+	 * 
+	 * @return Future completed with the JobExecution instance once it reaches a "final" state, 
+	 * or failed with JobExecutionTimeoutException when it hasn't after the timeout specified 
+	 * in the factory create method.
+	 * 
+	 * @see JobExecutionWaiter#awaitTermination
+	 */
+	JobExecutionFuture awaitTerminationAsync();
+}
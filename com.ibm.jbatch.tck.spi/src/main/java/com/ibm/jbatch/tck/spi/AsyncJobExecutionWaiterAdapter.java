@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+import java.util.concurrent.Executor;
+
+import javax.batch.runtime.JobExecution;
+
+/**
+ * Adapts a blocking JobExecutionWaiter to AsyncJobExecutionWaiter, by calling
+ * awaitTermination on a thread of the given Executor.
+ * 
+ * <p>
+ * Note each pending wait still ties up a thread of the Executor, so a waiter implementing
+ * AsyncJobExecutionWaiter natively scales better.
+ */
+public class AsyncJobExecutionWaiterAdapter implements AsyncJobExecutionWaiter {
+
+	private final JobExecutionWaiter waiter;
+	private final Executor executor;
+
+	public AsyncJobExecutionWaiterAdapter(JobExecutionWaiter waiter, Executor executor) {
+		this.waiter = waiter;
+		this.executor = executor;
+	}
+
+	@Override
+	public JobExecution awaitTermination() throws JobExecutionTimeoutException {
+		return waiter.awaitTermination();
+	}
+
+	@Override
+	public JobExecutionFuture awaitTerminationAsync() {
+		final DefaultJobExecutionFuture future = new DefaultJobExecutionFuture();
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					future.complete(waiter.awaitTermination());
+				} catch (Throwable t) {
+					future.fail(t);
+				}
+			}
+		});
+		return future;
+	}
+}
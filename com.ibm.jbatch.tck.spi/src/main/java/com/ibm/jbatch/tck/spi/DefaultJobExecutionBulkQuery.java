@@ -0,0 +1,48 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.JobSecurityException;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.JobExecution;
+
+/**
+ * JobExecutionBulkQuery for implementations not providing one, reading each execution 
+ * with its own call to {@link JobOperator#getJobExecution(long)}.
+ */
+public class DefaultJobExecutionBulkQuery implements JobExecutionBulkQuery {
+
+	@Override
+	public Map<Long, JobExecution> getJobExecutions(JobOperator jobOp, Set<Long> executionIds) throws JobSecurityException {
+		Map<Long, JobExecution> executions = new HashMap<Long, JobExecution>();
+		for (Long executionId : executionIds) {
+			try {
+				executions.put(executionId, jobOp.getJobExecution(executionId));
+			} catch (NoSuchJobExecutionException e) {
+				// Left out of the result
+			}
+		}
+		return executions;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.batch.runtime.JobExecution;
+
+/**
+ * JobExecutionFuture completed explicitly, by whichever party does the waiting.
+ * 
+ * <p>
+ * Only the first of {@link #complete}, {@link #fail} or {@link #cancel} has any effect.
+ */
+public class DefaultJobExecutionFuture implements JobExecutionFuture {
+
+	private final static Logger logger = Logger.getLogger(DefaultJobExecutionFuture.class.getName());
+
+	private final CountDownLatch done = new CountDownLatch(1);
+	private List<JobExecutionCallback> callbacks = new ArrayList<JobExecutionCallback>();
+
+	private JobExecution jobExecution = null;
+	private Throwable failure = null;
+	private boolean cancelled = false;
+
+	/**
+	 * @return true if this call completed the future.
+	 */
+	public boolean complete(JobExecution jobExecution) {
+		return set(jobExecution, null, false);
+	}
+
+	/**
+	 * @return true if this call completed the future.
+	 */
+	public boolean fail(Throwable failure) {
+		return set(null, failure, false);
+	}
+
+	/**
+	 * Completes the future with a CancellationException.  Note this doesn't stop the
+	 * JobExecution, nor necessarily whoever is waiting on it.
+	 */
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		return set(null, new CancellationException(), true);
+	}
+
+	private boolean set(JobExecution jobExecution, Throwable failure, boolean cancelled) {
+		List<JobExecutionCallback> toCall;
+		synchronized (this) {
+			if (callbacks == null) {
+				return false;
+			}
+			this.jobExecution = jobExecution;
+			this.failure = failure;
+			this.cancelled = cancelled;
+			toCall = callbacks;
+			callbacks = null;
+		}
+		done.countDown();
+		for (JobExecutionCallback callback : toCall) {
+			call(callback);
+		}
+		return true;
+	}
+
+	@Override
+	public void addCallback(JobExecutionCallback callback) {
+		synchronized (this) {
+			if (callbacks != null) {
+				callbacks.add(callback);
+				return;
+			}
+		}
+		call(callback);
+	}
+
+	private void call(JobExecutionCallback callback) {
+		try {
+			if (failure == null) {
+				callback.terminated(jobExecution);
+			} else {
+				callback.failed(failure);
+			}
+		} catch (RuntimeException e) {
+			logger.log(Level.WARNING, "Callback threw exception, ignoring", e);
+		}
+	}
+
+	@Override
+	public synchronized boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public boolean isDone() {
+		return done.getCount() == 0;
+	}
+
+	@Override
+	public JobExecution get() throws InterruptedException, ExecutionException {
+		done.await();
+		return result();
+	}
+
+	@Override
+	public JobExecution get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		if (!done.await(timeout, unit)) {
+			throw new TimeoutException();
+		}
+		return result();
+	}
+
+	private synchronized JobExecution result() throws ExecutionException {
+		if (cancelled) {
+			throw (CancellationException) failure;
+		}
+		if (failure != null) {
+			throw new ExecutionException(failure);
+		}
+		return jobExecution;
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+import java.util.Map;
+import java.util.Set;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.JobSecurityException;
+import javax.batch.runtime.JobExecution;
+
+/**
+ * Optional SPI an implementation may provide, via the ServiceLoader, to read many 
+ * JobExecutions in one call, e.g. with a single query against its job repository.
+ * 
+ * <p>
+ * A waiter tracking many executions at once then reads them all per poll, instead of calling
+ * {@link JobOperator#getJobExecution(long)} once per execution.  Without an implementation, 
+ * the TCK falls back to {@link DefaultJobExecutionBulkQuery}, which does just that.
+ */
+public interface JobExecutionBulkQuery {
+	/**
+	 * @param jobOp The JobOperator the executions were started with.
+	 * @param executionIds The ids of the executions to read.
+	 * @return The current JobExecution of each of the executions, keyed by execution id.  
+	 * An execution missing from the result is treated as not existing.
+	 * @throws JobSecurityException If the executions can't be read at all.
+	 */
+	Map<Long, JobExecution> getJobExecutions(JobOperator jobOp, Set<Long> executionIds) throws JobSecurityException;
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+import javax.batch.runtime.JobExecution;
+
+/**
+ * Callback added to a JobExecutionFuture, called once the wait completes.
+ * 
+ * @see JobExecutionFuture#addCallback
+ */
+public interface JobExecutionCallback {
+	/**
+	 * Called when the JobExecution reached a "final" state.
+	 * 
+	 * @param jobExecution JobExecution instance, as awaitTermination would have returned it.
+	 * 
+	 * @see JobExecutionWaiter#awaitTermination
+	 */
+	void terminated(JobExecution jobExecution);
+
+	/**
+	 * Called when the wait failed, e.g. with a JobExecutionTimeoutException, rather than
+	 * reaching a "final" state.
+	 * 
+	 * @param failure What awaitTermination would have thrown.
+	 */
+	void failed(Throwable failure);
+}
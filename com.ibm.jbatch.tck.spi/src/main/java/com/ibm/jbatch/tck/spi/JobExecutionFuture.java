@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+import java.util.concurrent.Future;
+
+import javax.batch.runtime.JobExecution;
+
+/**
+ * Result of an asynchronous wait for a JobExecution to reach a "final" state.
+ * 
+ * <p>
+ * Besides blocking in {@link #get()}, a caller may add callbacks, which lets a single thread
+ * wait on many executions at once, or chain further work (e.g. a restart) onto each of them.
+ * 
+ * <p>
+ * When the wait failed, {@link #get()} throws an ExecutionException wrapping what 
+ * awaitTermination would have thrown, e.g. a JobExecutionTimeoutException.
+ * 
+ * @see AsyncJobExecutionWaiter#awaitTerminationAsync
+ */
+public interface JobExecutionFuture extends Future<JobExecution> {
+	/**
+	 * Add a callback to be called once, when the wait completes.  If it has already completed,
+	 * the callback is called right away, on the calling thread.  Otherwise it is called on
+	 * whatever thread completes the wait, so it should not block.
+	 * 
+	 * @param callback The callback.
+	 */
+	void addCallback(JobExecutionCallback callback);
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+import javax.batch.runtime.BatchStatus;
+
+/**
+ * Callback registered with a JobExecutionStatusNotifier, to be told when the 
+ * batch status of a JobExecution changes.
+ * 
+ * @see JobExecutionStatusNotifier
+ */
+public interface JobExecutionStatusListener {
+	/**
+	 * Called by the notifier after the batch status of the JobExecution has changed.
+	 * 
+	 * <p>
+	 * The listener should do nothing more than record the fact and return quickly, since 
+	 * it may be called on a thread of the implementation's choosing (e.g. a job thread).
+	 * 
+	 * @param executionId JobExecution id of the execution whose batch status changed.
+	 * @param batchStatus The new batch status.
+	 */
+	void batchStatusChanged(long executionId, BatchStatus batchStatus);
+}
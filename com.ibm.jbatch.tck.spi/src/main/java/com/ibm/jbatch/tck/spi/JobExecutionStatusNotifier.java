@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+/**
+ * Optional, "push"-style extension of the porting package SPI.
+ * 
+ * <p>
+ * An implementation which is able to call back when the batch status of a JobExecution 
+ * changes may provide this service (via a META-INF/services/com.ibm.jbatch.tck.spi.JobExecutionStatusNotifier
+ * entry).  The TCK will then wait for job executions to reach a "final" state by registering
+ * a listener rather than by polling the JobOperator.
+ * 
+ * <p>
+ * When no such service is found, the TCK falls back to the default, polling JobExecutionWaiterFactory. 
+ * A JobExecutionWaiterFactory provided by the implementation itself takes precedence over this service.
+ * 
+ * @see JobExecutionWaiter#awaitTermination
+ */
+public interface JobExecutionStatusNotifier {
+	/**
+	 * Register a listener to be called on each subsequent batch status change
+	 * of the given JobExecution.
+	 * 
+	 * <p>
+	 * Note a status change happening concurrently with registration may or may not
+	 * be reported, so the caller is expected to check the current state of the execution
+	 * after registering. 
+	 *  
+	 * @param executionId JobExecution id of the execution to listen to.
+	 * @param listener The listener to call back.
+	 */
+	void addStatusListener(long executionId, JobExecutionStatusListener listener);
+
+	/**
+	 * Unregister a listener previously registered via {@link #addStatusListener}.  Unregistering
+	 * a listener which is not registered is a no-op.
+	 * 
+	 * @param executionId JobExecution id of the execution listened to.
+	 * @param listener The listener to unregister.
+	 */
+	void removeStatusListener(long executionId, JobExecutionStatusListener listener);
+}
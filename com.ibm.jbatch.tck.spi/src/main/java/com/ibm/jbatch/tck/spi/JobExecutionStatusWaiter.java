@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+import java.util.Set;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+/**
+ * Optional extension of JobExecutionWaiter which can also wait for a JobExecution to reach 
+ * an intermediate state, e.g. for a job to be STARTED before stopping it.
+ * 
+ * <p>
+ * A test can then act as soon as the JobExecution is in the expected state, rather than
+ * sleeping for a fixed time and hoping it is.
+ */
+public interface JobExecutionStatusWaiter extends JobExecutionWaiter {
+	/**
+	 * The waiter instance is associated with an execution id via the factory create method.	
+	 * 
+	 * <p>
+	 * This method blocks and only returns when either:
+	 * <ul>
+	 *  <li>The batch status of the JobExecution is one of the given batch statuses, or
+	 *  <li>The JobExecution reached a 'final' state, in which case the batch status can't 
+	 *  change anymore.  The caller should check the batch status of the returned JobExecution.
+	 * </ul>
+	 * 
+	 * <p>
+	 * Unlike awaitTermination, this doesn't wait for the exit status to be set.
+	 * 
+	 * @param batchStatuses The batch statuses to wait for.
+	 * @return JobExecution instance (based on JobExecution specified in factory create method).
+	 * @throws JobExecutionTimeoutException Thrown when JobExecution hasn't reached any of the given 
+	 * batch statuses nor a final state after the timeout specified in the factory create method.
+	 * 
+	 * @see JobExecutionWaiter#awaitTermination
+	 */
+	JobExecution awaitStatus(Set<BatchStatus> batchStatuses) throws JobExecutionTimeoutException;
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+/**
+ * The batch status transitions of a JobExecution, as observed by a waiter, each with the 
+ * {@link System#nanoTime()} at which it was observed.
+ * 
+ * <p>
+ * Times are only as precise as the waiter observing them, e.g. a polling waiter sees a
+ * transition up to one poll interval late, and may miss a short-lived status altogether.
+ * 
+ * <p>
+ * The origin of the timeline is the time the waiter was created, which the TCK does right 
+ * after starting, restarting or stopping the job.  So the time from the origin until STARTED 
+ * approximates queue-to-start latency for a started job, and the time until STOPPED 
+ * approximates stop-request-to-STOPPED latency for a stopped job.
+ */
+public final class JobExecutionTimeline {
+
+	private final long executionId;
+	private final long originNanoTime;
+	private final List<Transition> transitions = new ArrayList<Transition>();
+	private long exitStatusNanoTime = -1;
+
+	public JobExecutionTimeline(long executionId) {
+		this.executionId = executionId;
+		this.originNanoTime = System.nanoTime();
+	}
+
+	/**
+	 * Records the batch status and exit status of the JobExecution, if they changed since the 
+	 * last call.
+	 */
+	public void record(JobExecution jobExecution) {
+		record(jobExecution.getBatchStatus(), jobExecution.getExitStatus(), System.nanoTime());
+	}
+
+	public synchronized void record(BatchStatus batchStatus, String exitStatus, long nanoTime) {
+		if (transitions.isEmpty() || transitions.get(transitions.size() - 1).getBatchStatus() != batchStatus) {
+			transitions.add(new Transition(batchStatus, nanoTime));
+		}
+		if (exitStatus != null && exitStatusNanoTime == -1) {
+			exitStatusNanoTime = nanoTime;
+		}
+	}
+
+	public long getExecutionId() {
+		return executionId;
+	}
+
+	public long getOriginNanoTime() {
+		return originNanoTime;
+	}
+
+	/**
+	 * @return The observed transitions, oldest first.  The first one is the batch status
+	 * first observed, not necessarily STARTING.
+	 */
+	public synchronized List<Transition> getTransitions() {
+		return Collections.unmodifiableList(new ArrayList<Transition>(transitions));
+	}
+
+	/**
+	 * @return The time the batch status was first observed to be batchStatus, or -1 if never.
+	 */
+	public synchronized long getNanoTime(BatchStatus batchStatus) {
+		for (Transition transition : transitions) {
+			if (transition.getBatchStatus() == batchStatus) {
+				return transition.getNanoTime();
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return The time the exit status was first observed to be non-null, or -1 if never.
+	 */
+	public synchronized long getExitStatusNanoTime() {
+		return exitStatusNanoTime;
+	}
+
+	/**
+	 * @return Nanoseconds from the first observation of the from status until the first 
+	 * observation of the to status, or -1 if either wasn't observed.
+	 */
+	public long getNanosBetween(BatchStatus from, BatchStatus to) {
+		long fromTime = getNanoTime(from);
+		long toTime = getNanoTime(to);
+		if (fromTime == -1 || toTime == -1) {
+			return -1;
+		}
+		return toTime - fromTime;
+	}
+
+	/**
+	 * @return Nanoseconds from the origin until the first observation of batchStatus, or -1 if 
+	 * it wasn't observed.
+	 */
+	public long getNanosUntil(BatchStatus batchStatus) {
+		long time = getNanoTime(batchStatus);
+		return time == -1 ? -1 : time - originNanoTime;
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder buf = new StringBuilder("JobExecutionTimeline[executionId=").append(executionId);
+		for (Transition transition : transitions) {
+			buf.append(", ").append(transition.getBatchStatus()).append("@+")
+				.append((transition.getNanoTime() - originNanoTime) / 1000).append("us");
+		}
+		if (exitStatusNanoTime != -1) {
+			buf.append(", exitStatus@+").append((exitStatusNanoTime - originNanoTime) / 1000).append("us");
+		}
+		return buf.append("]").toString();
+	}
+
+	public static final class Transition {
+
+		private final BatchStatus batchStatus;
+		private final long nanoTime;
+
+		Transition(BatchStatus batchStatus, long nanoTime) {
+			this.batchStatus = batchStatus;
+			this.nanoTime = nanoTime;
+		}
+
+		public BatchStatus getBatchStatus() {
+			return batchStatus;
+		}
+
+		public long getNanoTime() {
+			return nanoTime;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+/**
+ * Optional extension of JobExecutionWaiter which records the batch status transitions it 
+ * observes while waiting.
+ * 
+ * <p>
+ * The TCK makes the timeline available to tests along with the JobExecution it waited for.
+ */
+public interface RecordingJobExecutionWaiter extends JobExecutionWaiter {
+	/**
+	 * @return The transitions observed so far by this waiter, never null.
+	 */
+	JobExecutionTimeline getTimeline();
+}
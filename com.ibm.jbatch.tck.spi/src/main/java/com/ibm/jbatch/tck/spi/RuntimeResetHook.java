@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.spi;
+
+import javax.batch.operations.JobOperator;
+
+/**
+ * Optional SPI an implementation may provide, via the ServiceLoader, for when the TCK 
+ * runs repeatedly against the same, still running, instance of the implementation 
+ * (see com.ibm.jbatch.tck.utils.TCKDaemon).
+ * 
+ * <p>
+ * Between runs, the TCK stops the executions still running and drops its own test state,
+ * then calls each reset hook found, so the implementation can drop whatever state of its own 
+ * would otherwise leak from one run into the next, e.g. cached job XML or artifacts, or 
+ * the contents of its job repository.  Without a hook, the state of the implementation is 
+ * simply kept across runs.
+ */
+public interface RuntimeResetHook {
+	/**
+	 * Called with no TCK test running, after the executions left running by the previous 
+	 * run have been stopped (or given up on).
+	 * 
+	 * @param jobOp The JobOperator the tests run against.
+	 */
+	void reset(JobOperator jobOp);
+}
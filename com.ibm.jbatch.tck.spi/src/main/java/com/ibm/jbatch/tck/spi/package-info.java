@@ -30,6 +30,15 @@
  * to implement this SPI, but will use the default implementation.
  * 
  * <p>
+ * An implementation able to call back on batch status changes may instead provide a 
+ * {@link com.ibm.jbatch.tck.spi.JobExecutionStatusNotifier}, in which case the TCK
+ * waits on these notifications rather than polling.
+ * Likewise, it may provide a {@link com.ibm.jbatch.tck.spi.JobExecutionBulkQuery} to read
+ * the status of many executions in one call.
+ * And it may provide {@link com.ibm.jbatch.tck.spi.RuntimeResetHook}s to drop its state 
+ * between runs of the TCK against the same running instance.
+ * 
+ * <p>
  * For more details, see the documentation in the Jakarta Batch TCK Reference Guide, included within the TCK binary.
  *  
  * @see <a href="https://download.eclipse.org/jakartabatch/tck/eftl/jakarta.batch.official.tck-1.0.2.zip">TCK binary</a>
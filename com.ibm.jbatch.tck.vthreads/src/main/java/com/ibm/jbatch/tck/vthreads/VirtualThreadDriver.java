@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.vthreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import com.ibm.jbatch.tck.utils.JobOperatorBridge;
+import com.ibm.jbatch.tck.utils.TCKJobExecutionWrapper;
+
+/**
+ * Runs concurrent job drivers on a virtual thread apiece, e.g. each starting a job and 
+ * blocking in awaitTermination(), or orchestrating a stop and restart.
+ * 
+ * Since a blocked virtual thread costs next to nothing, thousands of drivers can run at once,
+ * so it is the batch runtime rather than the harness which limits how far a run scales.
+ */
+public class VirtualThreadDriver implements AutoCloseable {
+
+	private final static String sourceClass = VirtualThreadDriver.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private final ExecutorService executor = 
+			Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("TCK virtual driver ", 0).factory());
+
+	public <T> Future<T> submit(Callable<T> driver) {
+		return executor.submit(driver);
+	}
+
+	/**
+	 * Runs all the drivers at once.
+	 * 
+	 * @return The results of the drivers, in the same order.
+	 * @throws ExecutionException The first failure, once all drivers are done.
+	 */
+	public <T> List<T> runAll(List<? extends Callable<T>> drivers) throws InterruptedException, ExecutionException {
+		logger.fine("Running " + drivers.size() + " drivers");
+		List<Future<T>> futures = new ArrayList<Future<T>>(drivers.size());
+		for (Callable<T> driver : drivers) {
+			futures.add(executor.submit(driver));
+		}
+		List<T> results = new ArrayList<T>(drivers.size());
+		ExecutionException failure = null;
+		for (Future<T> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e;
+				}
+				results.add(null);
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		return results;
+	}
+
+	/**
+	 * Starts one execution of the job per set of job parameters, each from its own virtual thread, and 
+	 * waits for all of them to reach a "final" state.
+	 */
+	public List<TCKJobExecutionWrapper> startJobsAndWaitForAll(final JobOperatorBridge jobOp, final String jobName, List<Properties> jobParameters) throws InterruptedException, ExecutionException {
+		List<Callable<TCKJobExecutionWrapper>> drivers = new ArrayList<Callable<TCKJobExecutionWrapper>>();
+		for (final Properties params : jobParameters) {
+			drivers.add(new Callable<TCKJobExecutionWrapper>() {
+				@Override
+				public TCKJobExecutionWrapper call() throws Exception {
+					return jobOp.startJobAndWaitForResult(jobName, params);
+				}
+			});
+		}
+		return runAll(drivers);
+	}
+
+	/**
+	 * Restarts each of the executions, each from its own virtual thread, and waits for all of the new 
+	 * executions to reach a "final" state.
+	 */
+	public List<TCKJobExecutionWrapper> restartJobsAndWaitForAll(final JobOperatorBridge jobOp, List<Long> oldExecutionIds, final Properties restartJobParameters) throws InterruptedException, ExecutionException {
+		List<Callable<TCKJobExecutionWrapper>> drivers = new ArrayList<Callable<TCKJobExecutionWrapper>>();
+		for (final Long oldExecutionId : oldExecutionIds) {
+			drivers.add(new Callable<TCKJobExecutionWrapper>() {
+				@Override
+				public TCKJobExecutionWrapper call() throws Exception {
+					return jobOp.restartJobAndWaitForResult(oldExecutionId, restartJobParameters);
+				}
+			});
+		}
+		return runAll(drivers);
+	}
+
+	/**
+	 * For each set of job parameters, from its own virtual thread: starts the job, stops it once STARTED, 
+	 * then restarts it and waits for the restart to reach a "final" state.
+	 * 
+	 * @return The restarted executions, or the original ones which reached a "final" state before being stopped.
+	 */
+	public List<TCKJobExecutionWrapper> stopAndRestartAll(final JobOperatorBridge jobOp, final String jobName, List<Properties> jobParameters, final Properties restartJobParameters) throws InterruptedException, ExecutionException {
+		List<Callable<TCKJobExecutionWrapper>> drivers = new ArrayList<Callable<TCKJobExecutionWrapper>>();
+		for (final Properties params : jobParameters) {
+			drivers.add(new Callable<TCKJobExecutionWrapper>() {
+				@Override
+				public TCKJobExecutionWrapper call() throws Exception {
+					TCKJobExecutionWrapper started = jobOp.startJobWithoutWaitingForResult(jobName, params);
+					TCKJobExecutionWrapper running = jobOp.awaitStatus(started.getExecutionId(), BatchStatus.STARTED);
+					if (running.getBatchStatus() != BatchStatus.STARTED) {
+						return running;
+					}
+					JobExecution stopped = jobOp.stopJobAndWaitForResult(started);
+					if (stopped.getBatchStatus() != BatchStatus.STOPPED) {
+						return (TCKJobExecutionWrapper) stopped;
+					}
+					return jobOp.restartJobAndWaitForResult(started.getExecutionId(), restartJobParameters);
+				}
+			});
+		}
+		return runAll(drivers);
+	}
+
+	@Override
+	public void close() {
+		executor.close();
+	}
+}
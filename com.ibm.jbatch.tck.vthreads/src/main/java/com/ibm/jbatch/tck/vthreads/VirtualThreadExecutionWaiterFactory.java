@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.vthreads;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import com.ibm.jbatch.tck.polling.TCKPollingExecutionWaiterFactory;
+import com.ibm.jbatch.tck.spi.AsyncJobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.AsyncJobExecutionWaiterAdapter;
+import com.ibm.jbatch.tck.spi.JobExecutionFuture;
+import com.ibm.jbatch.tck.spi.JobExecutionStatusWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
+
+/**
+ * JobExecutionWaiterFactory whose waiters poll like the default one, but wait asynchronously
+ * on a virtual thread each, so tens of thousands of executions can be waited on at once 
+ * without a platform thread apiece.
+ * 
+ * Select it by setting system property:
+ * <pre>
+ *   tck.execution.waiter.factory=com.ibm.jbatch.tck.vthreads.VirtualThreadExecutionWaiterFactory
+ * </pre>
+ */
+public class VirtualThreadExecutionWaiterFactory implements JobExecutionWaiterFactory {
+
+	private final static String sourceClass = VirtualThreadExecutionWaiterFactory.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private final static ExecutorService sharedExecutor = 
+			Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("TCK virtual waiter ", 0).factory());
+
+	private final JobExecutionWaiterFactory delegate;
+	private final ExecutorService executor;
+
+	public VirtualThreadExecutionWaiterFactory() {
+		this(new TCKPollingExecutionWaiterFactory(), sharedExecutor);
+	}
+
+	/**
+	 * @param delegate Creates the (blocking) waiters to run on virtual threads
+	 * @param executor Runs each asynchronous wait on its own virtual thread
+	 */
+	public VirtualThreadExecutionWaiterFactory(JobExecutionWaiterFactory delegate, ExecutorService executor) {
+		this.delegate = delegate;
+		this.executor = executor;
+	}
+
+	@Override
+	public JobExecutionWaiter createWaiter(long executionId, JobOperator jobOp, long timeout) {
+		logger.fine("Creating waiter for executionId = " + executionId + ", timeout = " + timeout);
+		JobExecutionWaiter waiter = delegate.createWaiter(executionId, jobOp, timeout);
+		// Only claim to wait for a status when the delegate can, so callers can fall back on their own polling otherwise
+		if (waiter instanceof JobExecutionStatusWaiter) {
+			return new VirtualThreadExecutionStatusWaiter((JobExecutionStatusWaiter) waiter);
+		}
+		return new VirtualThreadExecutionWaiter(waiter);
+	}
+
+	private class VirtualThreadExecutionWaiter implements AsyncJobExecutionWaiter {
+
+		private final JobExecutionWaiter waiter;
+		private final AsyncJobExecutionWaiter asyncWaiter;
+
+		private VirtualThreadExecutionWaiter(JobExecutionWaiter waiter) {
+			this.waiter = waiter;
+			this.asyncWaiter = new AsyncJobExecutionWaiterAdapter(waiter, executor);
+		}
+
+		@Override
+		public JobExecution awaitTermination() throws JobExecutionTimeoutException {
+			return waiter.awaitTermination();
+		}
+
+		@Override
+		public JobExecutionFuture awaitTerminationAsync() {
+			return asyncWaiter.awaitTerminationAsync();
+		}
+	}
+
+	private class VirtualThreadExecutionStatusWaiter extends VirtualThreadExecutionWaiter implements JobExecutionStatusWaiter {
+
+		private final JobExecutionStatusWaiter statusWaiter;
+
+		private VirtualThreadExecutionStatusWaiter(JobExecutionStatusWaiter statusWaiter) {
+			super(statusWaiter);
+			this.statusWaiter = statusWaiter;
+		}
+
+		@Override
+		public JobExecution awaitStatus(Set<BatchStatus> batchStatuses) throws JobExecutionTimeoutException {
+			return statusWaiter.awaitStatus(batchStatuses);
+		}
+	}
+}
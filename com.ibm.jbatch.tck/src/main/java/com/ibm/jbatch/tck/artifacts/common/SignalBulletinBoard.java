@@ -0,0 +1,180 @@
+/*
+ * Copyright 2012 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.artifacts.common;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * In-JVM bulletin board through which batch artifacts tell the test driving
+ * them that they reached a given point, e.g. "batchlet entered loop", so the
+ * test can act on the event instead of sleeping.
+ *
+ * Signals are counted and keyed by job execution ID, step name and signal name.
+ * Artifacts running in several partitions of the same step all post to the same
+ * key, so a test waiting for a partitioned step awaits a count equal to the
+ * number of partitions.
+ *
+ * A signal can also serve as a barrier between an artifact and the test: each
+ * party posts it once, and {@link #arriveAndAwait} lets an artifact hold its
+ * execution at a given point until the test has arrived as well.
+ *
+ * The board only works when the artifacts run in the same JVM as the tests.
+ * When they don't (e.g. when the tests drive a remote server) no signal ever
+ * arrives, so callers should treat a timed-out {@link #await} as "unknown" and
+ * proceed as they would have after a fixed sleep of the same length.
+ *
+ * The JobOperatorBridge clears the signals of each execution once it has seen
+ * it end, so the board doesn't grow with the executions of tests that never
+ * await the signals their artifacts post.
+ */
+public final class SignalBulletinBoard {
+
+	private final static String sourceClass = SignalBulletinBoard.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	/**
+	 * Posted by MyLongRunningBatchletImpl once process() is inside its loop,
+	 * i.e. once a stop will be seen by the batchlet itself.
+	 */
+	public static final String BATCHLET_ENTERED_LOOP = "batchlet.entered.loop";
+
+	/**
+	 * Barrier between FailRestartBatchlet, which holds its restarted execution
+	 * active, and the test trying to abandon that execution, which releases the
+	 * batchlet once it has made its attempt.
+	 */
+	public static final String RESTART_HELD_ACTIVE = "restart.held.active";
+
+	private static final ConcurrentMap<Long, ConcurrentMap<String, Signal>> board =
+			new ConcurrentHashMap<Long, ConcurrentMap<String, Signal>>();
+
+	private SignalBulletinBoard() {
+	}
+
+	/**
+	 * Posts one occurrence of a signal and wakes up anyone waiting for it.
+	 *
+	 * @return the number of times the signal has now been posted
+	 */
+	public static int signal(long executionId, String stepName, String signalName) {
+		int count = getSignal(executionId, stepName, signalName).increment();
+		logger.fine("Signal " + signalName + " #" + count + " posted for execution " + executionId + ", step " + stepName);
+		return count;
+	}
+
+	/**
+	 * @return the number of times the signal has been posted so far
+	 */
+	public static int getCount(long executionId, String stepName, String signalName) {
+		return getSignal(executionId, stepName, signalName).getCount();
+	}
+
+	/**
+	 * Waits until the signal has been posted at least <code>count</code> times.
+	 *
+	 * @return true if the signal count was reached, false if the timeout elapsed first
+	 */
+	public static boolean await(long executionId, String stepName, String signalName, int count, long timeoutMillis) throws InterruptedException {
+		return getSignal(executionId, stepName, signalName).await(count, timeoutMillis);
+	}
+
+	/**
+	 * Waits until the signal has been posted at least once.
+	 */
+	public static boolean await(long executionId, String stepName, String signalName, long timeoutMillis) throws InterruptedException {
+		return await(executionId, stepName, signalName, 1, timeoutMillis);
+	}
+
+	/**
+	 * Posts one occurrence of a signal, then waits until it has been posted
+	 * <code>parties</code> times, i.e. until every party of the barrier has arrived.
+	 *
+	 * @return true if all the parties arrived, false if the timeout elapsed first
+	 */
+	public static boolean arriveAndAwait(long executionId, String stepName, String signalName, int parties, long timeoutMillis) throws InterruptedException {
+		Signal signal = getSignal(executionId, stepName, signalName);
+		int count = signal.increment();
+		logger.fine("Party #" + count + " of " + parties + " arrived at " + signalName + " for execution " + executionId + ", step " + stepName);
+		return signal.await(parties, timeoutMillis);
+	}
+
+	/**
+	 * Drops all the signals posted for an execution.
+	 */
+	public static void clear(long executionId) {
+		board.remove(executionId);
+	}
+
+	/**
+	 * Drops all the signals posted so far, e.g. between two runs of the TCK in the same JVM.
+	 */
+	public static void clearAll() {
+		board.clear();
+	}
+
+	private static Signal getSignal(long executionId, String stepName, String signalName) {
+		ConcurrentMap<String, Signal> signals = board.get(executionId);
+		if (signals == null) {
+			ConcurrentMap<String, Signal> newSignals = new ConcurrentHashMap<String, Signal>();
+			signals = board.putIfAbsent(executionId, newSignals);
+			if (signals == null) {
+				signals = newSignals;
+			}
+		}
+		String key = stepName + "/" + signalName;
+		Signal signal = signals.get(key);
+		if (signal == null) {
+			Signal newSignal = new Signal();
+			signal = signals.putIfAbsent(key, newSignal);
+			if (signal == null) {
+				signal = newSignal;
+			}
+		}
+		return signal;
+	}
+
+	private static final class Signal {
+
+		private int count = 0;
+
+		synchronized int increment() {
+			count++;
+			notifyAll();
+			return count;
+		}
+
+		synchronized int getCount() {
+			return count;
+		}
+
+		synchronized boolean await(int target, long timeoutMillis) throws InterruptedException {
+			long deadline = System.nanoTime() + timeoutMillis * 1000000L;
+			while (count < target) {
+				long remainingMillis = (deadline - System.nanoTime()) / 1000000L;
+				if (remainingMillis <= 0) {
+					return false;
+				}
+				wait(remainingMillis);
+			}
+			return true;
+		}
+	}
+}
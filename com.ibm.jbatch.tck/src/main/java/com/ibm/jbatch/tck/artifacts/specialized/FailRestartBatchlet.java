@@ -20,8 +20,12 @@ package com.ibm.jbatch.tck.artifacts.specialized;
 
 import javax.batch.api.BatchProperty;
 import javax.batch.api.Batchlet;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
 import javax.inject.Inject;
 
+import com.ibm.jbatch.tck.artifacts.common.SignalBulletinBoard;
+
 @javax.inject.Named("failRestartBatchlet")
 public class FailRestartBatchlet implements Batchlet {
 
@@ -32,6 +36,12 @@ public class FailRestartBatchlet implements Batchlet {
     @Inject    
     @BatchProperty(name="sleep.time")
     String sleepTimeString;
+
+    @Inject
+    JobContext jobCtx;
+
+    @Inject
+    StepContext stepCtx;
 	
     boolean init = false;
     int executionNum = 0;
@@ -48,7 +58,8 @@ public class FailRestartBatchlet implements Batchlet {
 			throw new Exception("fail on purpose, execution1");
 		}
 		else if (executionNum == 2){
-			Thread.sleep(sleeptime);
+			// Stay active until the test has tried to abandon us, for at most sleep.time
+			SignalBulletinBoard.arriveAndAwait(jobCtx.getExecutionId(), stepCtx.getStepName(), SignalBulletinBoard.RESTART_HELD_ACTIVE, 2, sleeptime);
 		}
 		return "FailRestartBatchlet Done";
 	}
@@ -27,6 +27,7 @@ import javax.batch.runtime.context.JobContext;
 import javax.batch.runtime.context.StepContext;
 import javax.inject.Inject;
 
+import com.ibm.jbatch.tck.artifacts.common.SignalBulletinBoard;
 import com.ibm.jbatch.tck.artifacts.reusable.StopOnBulletinBoardTestData;
 
 // NOTE:  We do NOT use the default @Named value in this special case, like we usually do.
@@ -99,6 +100,10 @@ public class MyLongRunningBatchletImpl extends AbstractBatchlet {
 		boolean maxTimesReached = false;
 
 		while (!stopped) {
+			if (i == 0) {
+				// Let a test waiting to stop us know a stop will now reach this loop.
+				SignalBulletinBoard.signal(jobCtx.getExecutionId(), stepCtx.getStepName(), SignalBulletinBoard.BATCHLET_ENTERED_LOOP);
+			}
 			if (i % 100000 == 0) {
 				logger.fine("i=" + i++);
 			} else {
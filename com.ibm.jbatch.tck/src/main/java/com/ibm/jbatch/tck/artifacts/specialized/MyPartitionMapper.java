@@ -47,6 +47,10 @@ public class MyPartitionMapper implements PartitionMapper {
     @BatchProperty
     private String partitionsOverride = null;
 
+    @Inject
+    @BatchProperty
+    private String threadsProp = null;
+
 	
 	@Override
 	public PartitionPlan mapPartitions() throws Exception {
@@ -70,6 +74,9 @@ public class MyPartitionMapper implements PartitionMapper {
 		PartitionPlan partitionPlan = new MyPartitionPlan();
 		partitionPlan.setPartitions(numPartitions);
 		partitionPlan.setPartitionProperties(props);
+		if (threadsProp != null && threadsProp.length() > 0) {
+		    partitionPlan.setThreads(Integer.parseInt(threadsProp));
+		}
 		if ("true".equals(partitionsOverride)) {
 		    partitionPlan.setPartitionsOverride(true);
 		} else {
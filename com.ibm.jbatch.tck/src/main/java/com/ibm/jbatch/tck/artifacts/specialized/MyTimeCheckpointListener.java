@@ -45,6 +45,18 @@ public class MyTimeCheckpointListener extends AbstractChunkListener {
     @BatchProperty(name="timeinterval")
     String timeintervalString;
     
+    /**
+     * Factor by which the test compressed the time of the job, e.g. 10 when the job
+     * checkpoints every second to stand for a 10 second checkpoint.  An interval
+     * is reported as the time interval plus its deviation, in whole seconds of real
+     * time, from the compressed interval, so the +/- 1 second window stays one
+     * second of real time whatever the scale.  Unset means no compression,
+     * as in the official TCK jobs.
+     */
+    @Inject    
+    @BatchProperty(name="time.scale")
+    String timeScaleString;
+    
     @Inject 
     JobContext jobCtx;
     
@@ -60,6 +72,7 @@ public class MyTimeCheckpointListener extends AbstractChunkListener {
     	logger.fine("CHUNKLISTENER: beforeChunk");
     	
     	timeinterval = Integer.parseInt(timeintervalString);
+    	int timeScale = (timeScaleString == null || timeScaleString.isEmpty()) ? 1 : Integer.parseInt(timeScaleString);
     	
     		logger.fine("CHUNKLISTENER: got the timeinterval: " + timeinterval);
     		logger.fine("CHUNKLISTENER: startTime: " + startTime);
@@ -74,7 +87,9 @@ public class MyTimeCheckpointListener extends AbstractChunkListener {
         	diff = 0;
         }
         else {
-        	diff = (int)((int)endTime - startTime)/1000;
+        	// Same as curdiff / 1000 when uncompressed
+        	long expected = timeinterval * 1000L / timeScale;
+        	diff = (int)(timeinterval + Math.floorDiv(curdiff - expected, 1000L));
         }
         
         logger.fine("AJM: time diff =" + diff);
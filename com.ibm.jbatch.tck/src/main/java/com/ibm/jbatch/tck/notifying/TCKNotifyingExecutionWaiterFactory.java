@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.ibm.jbatch.tck.notifying;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.JobSecurityException;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.tck.spi.JobExecutionStatusListener;
+import com.ibm.jbatch.tck.spi.JobExecutionStatusNotifier;
+import com.ibm.jbatch.tck.spi.JobExecutionStatusWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
+
+/**
+ * Implementation of the TCK "porting package" JobExecutionWaiterFactory SPI
+ * used when the runtime provides a JobExecutionStatusNotifier.
+ * 
+ * Rather than polling, each waiter registers a listener and blocks until it is
+ * told the execution reached a final batch status, only then reading the JobExecution.
+ * 
+ * @see com.ibm.jbatch.tck.polling.TCKPollingExecutionWaiterFactory
+ */
+public class TCKNotifyingExecutionWaiterFactory implements JobExecutionWaiterFactory {
+
+	private final static String sourceClass = TCKNotifyingExecutionWaiterFactory.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	// Safety net only.  The exit status may be set after the final batch status has been
+	// reported, in which case no further notification is coming.
+	private final long RECHECK_INTERVAL = 1000; // 1 second
+
+	private final JobExecutionStatusNotifier notifier;
+
+	public TCKNotifyingExecutionWaiterFactory(JobExecutionStatusNotifier notifier) {
+		this.notifier = notifier;
+	}
+
+	/**
+	 * @param executionId
+	 * @param JobOperator 
+	 * @param timeout In milliseconds
+	 * @return JobExecutionWaiter
+	 */
+	@Override
+	public JobExecutionWaiter createWaiter(long executionId, JobOperator jobOp, long timeout) {
+		return new TCKNotifyingExecutionWaiter(executionId, jobOp, timeout);
+	}
+
+	private class TCKNotifyingExecutionWaiter implements JobExecutionStatusWaiter, JobExecutionStatusListener {
+
+		private long executionId;
+		private JobOperator jobOp;
+		private long timeout;
+
+		private final Object lock = new Object();
+		private boolean notified = false;
+		// Besides the final ones, null when waiting for termination
+		private volatile Set<BatchStatus> batchStatuses = null;
+
+		private TCKNotifyingExecutionWaiter(long executionId, JobOperator jobOp, long timeout) {
+			logger.fine("Creating waiter for executionId = " + executionId + ", jobOp = " + jobOp + ", timeout = " + timeout);
+			this.executionId = executionId;
+			this.jobOp = jobOp;
+			this.timeout = timeout;
+		}
+
+		/**
+		 * Wait for
+		 *   1) BatchStatus to be one of: STOPPED ,FAILED , COMPLETED, ABANDONED
+		 *     AND 
+		 *   2) exitStatus to be non-null
+		 * @return JobExecution
+		 */
+		@Override
+		public JobExecution awaitTermination() throws JobExecutionTimeoutException {
+			logger.fine("Entering awaitTermination for executionId = " + executionId);
+			return await(null);
+		}
+
+		/**
+		 * Wait for BatchStatus to be one of batchStatuses, or one of: STOPPED ,FAILED , COMPLETED, ABANDONED
+		 * @return JobExecution
+		 */
+		@Override
+		public JobExecution awaitStatus(Set<BatchStatus> batchStatuses) throws JobExecutionTimeoutException {
+			logger.fine("Entering awaitStatus for executionId = " + executionId + ", batchStatuses = " + batchStatuses);
+			return await(batchStatuses);
+		}
+
+		private JobExecution await(Set<BatchStatus> batchStatuses) throws JobExecutionTimeoutException {
+			this.batchStatuses = batchStatuses;
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+			// Register before the first check so a transition in between isn't lost.
+			notifier.addStatusListener(executionId, this);
+			try {
+				while (true) {
+					JobExecution jobExecution = jobOp.getJobExecution(executionId);
+					if (batchStatuses == null ? isTerminated(jobExecution) : isInStatus(jobExecution, batchStatuses)) {
+						return jobExecution;
+					}
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						String msg = "Timed out waiting for TCK Job Execution " + executionId + " to reach " + (batchStatuses == null ? "terminated status" : "one of batch statuses: " + batchStatuses + " or a terminated status") + ".  Timeout (long msec) = " + timeout;
+						logger.warning(msg);
+						throw new JobExecutionTimeoutException(msg);
+					}
+					synchronized (lock) {
+						if (!notified) {
+							TimeUnit.NANOSECONDS.timedWait(lock, Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(RECHECK_INTERVAL)));
+						}
+						notified = false;
+					}
+					logger.finer("Wake up, check for termination.");
+				}
+			} catch (InterruptedException e) {
+				throw new IllegalStateException("Aborting on interrupt", e);
+			} catch (JobSecurityException e) {
+				throw new IllegalStateException("Aborting on security (authorization) exception", e);
+			} catch (NoSuchJobExecutionException e) {
+				throw new IllegalStateException("JobExecution disappeared for exec id =" + executionId);
+			} finally {
+				notifier.removeStatusListener(executionId, this);
+			}
+		}
+
+		@Override
+		public void batchStatusChanged(long executionId, BatchStatus batchStatus) {
+			logger.finer("Notified of batch status: " + batchStatus + " for executionId = " + executionId);
+			Set<BatchStatus> waitedFor = batchStatuses;
+			if (terminatedStatuses.contains(batchStatus) || (waitedFor != null && waitedFor.contains(batchStatus))) {
+				synchronized (lock) {
+					notified = true;
+					lock.notifyAll();
+				}
+			}
+		}
+
+		private boolean isInStatus(JobExecution jobExecution, Set<BatchStatus> batchStatuses) {
+			BatchStatus bs = jobExecution.getBatchStatus();
+			return batchStatuses.contains(bs) || terminatedStatuses.contains(bs);
+		}
+
+		private boolean isTerminated(JobExecution jobExecution) {
+			BatchStatus bs = jobExecution.getBatchStatus();
+			if (terminatedStatuses.contains(bs)) {
+				logger.fine("Found terminating batch status of: " + bs.name());
+				if (jobExecution.getExitStatus() != null) {
+					logger.fine("Found exit status of: " + jobExecution.getExitStatus());
+					return true;
+				} else {
+					logger.fine("Exit status is still 'null'.  Wait again.");
+				}
+			}
+			return false;
+		}
+	}
+
+	private static Set<BatchStatus> terminatedStatuses = new HashSet<BatchStatus>();
+	static {
+		terminatedStatuses.add(BatchStatus.STOPPED);
+		terminatedStatuses.add(BatchStatus.FAILED);
+		terminatedStatuses.add(BatchStatus.COMPLETED);
+		terminatedStatuses.add(BatchStatus.ABANDONED);
+	}
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.ibm.jbatch.tck.polling;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.JobSecurityException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import com.ibm.jbatch.tck.spi.DefaultJobExecutionBulkQuery;
+import com.ibm.jbatch.tck.spi.DefaultJobExecutionFuture;
+import com.ibm.jbatch.tck.spi.JobExecutionBulkQuery;
+import com.ibm.jbatch.tck.spi.JobExecutionFuture;
+import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
+
+/**
+ * Tracks any number of JobExecutions waited on, from a single polling thread.
+ * 
+ * Each registration is polled following a {@link PollingSchedule} of its own, started
+ * when it is registered, so newly started jobs are checked tightly without restarting
+ * the backoff of the long-running ones.  Each sweep reads the executions of the 
+ * registrations due for a poll once, however many waiters are registered for them, 
+ * with one {@link JobExecutionBulkQuery} call per JobOperator, and releases only the 
+ * waiters whose execution reached a final state.
+ * 
+ * Since waiters are released by completing a JobExecutionFuture, nobody needs to 
+ * block while waiting.  Timeouts are enforced by the sweep as well.
+ * 
+ * The sweep thread is a daemon, started on first registration and idle while 
+ * nothing is registered.
+ */
+public class ExecutionWaiterRegistry {
+
+	private final static String sourceClass = ExecutionWaiterRegistry.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	// Upper bound on the wait between sweeps, in milliseconds, e.g. after a failed sweep
+	private static final long IDLE_SWEEP_INTERVAL = 1000;
+
+	private final PollingSchedule schedule;
+	private final JobExecutionBulkQuery bulkQuery;
+	private final ConcurrentLinkedQueue<Registration> registrations = new ConcurrentLinkedQueue<Registration>();
+
+	private final Object lock = new Object();
+	private Thread sweeper = null;
+
+	public ExecutionWaiterRegistry(PollingSchedule schedule) {
+		this(schedule, new DefaultJobExecutionBulkQuery());
+	}
+
+	/**
+	 * @param bulkQuery Used to read the registered executions on each sweep
+	 */
+	public ExecutionWaiterRegistry(PollingSchedule schedule, JobExecutionBulkQuery bulkQuery) {
+		logger.fine("Reading executions with: " + bulkQuery.getClass().getName());
+		this.schedule = schedule;
+		this.bulkQuery = bulkQuery;
+	}
+
+	/**
+	 * Start tracking a JobExecution.  The caller waits on (or adds callbacks to) the future
+	 * of the returned registration, and should {@link #unregister} it if it gives up early.
+	 * 
+	 * @param timeout In milliseconds, after which the future fails with a JobExecutionTimeoutException
+	 */
+	public Registration register(long executionId, JobOperator jobOp, long timeout) {
+		return register(executionId, jobOp, timeout, null);
+	}
+
+	/**
+	 * As {@link #register(long, JobOperator, long)}, except the future completes as soon as the batch 
+	 * status is one of the given batch statuses (or a final one), not waiting for the exit status.
+	 * 
+	 * @param batchStatuses The batch statuses to wait for, null to wait for termination.
+	 */
+	public Registration register(long executionId, JobOperator jobOp, long timeout, Set<BatchStatus> batchStatuses) {
+		Registration registration = new Registration(executionId, jobOp, timeout, batchStatuses, schedule.start());
+		registrations.add(registration);
+		synchronized (lock) {
+			if (sweeper == null) {
+				sweeper = new Thread(new Sweeper(), "TCK execution waiter sweep");
+				sweeper.setDaemon(true);
+				sweeper.start();
+			}
+			lock.notifyAll();
+		}
+		return registration;
+	}
+
+	public void unregister(Registration registration) {
+		registrations.remove(registration);
+	}
+
+	/**
+	 * @return The number of registrations not yet released.
+	 */
+	public int size() {
+		return registrations.size();
+	}
+
+	/**
+	 * Reads all registered executions of a JobOperator with one bulk query per sweep.  Returns 
+	 * the executions, by id, which were read successfully.
+	 */
+	private Map<Long, JobExecution> readExecutions(JobOperator jobOp, Set<Long> executionIds) {
+		Map<Long, JobExecution> executions;
+		try {
+			executions = bulkQuery.getJobExecutions(jobOp, executionIds);
+		} catch (JobSecurityException e) {
+			for (Long executionId : executionIds) {
+				fail(executionId, new IllegalStateException("Aborting on security (authorization) exception", e));
+			}
+			return new HashMap<Long, JobExecution>();
+		}
+		for (Long executionId : executionIds) {
+			if (!executions.containsKey(executionId)) {
+				fail(executionId, new IllegalStateException("JobExecution disappeared for exec id =" + executionId));
+			}
+		}
+		return executions;
+	}
+
+	/**
+	 * Reads the executions of the registrations due for a poll, and moves these on to their next poll.
+	 * 
+	 * @return When the next registration is due for a poll or times out
+	 */
+	private long sweep() {
+		long now = System.nanoTime();
+		long nextSweep = now + TimeUnit.MILLISECONDS.toNanos(IDLE_SWEEP_INTERVAL);
+		// Group by JobOperator, so each execution is read once whatever the number of waiters
+		Map<JobOperator, Set<Long>> executionIdsByJobOp = new IdentityHashMap<JobOperator, Set<Long>>();
+		for (Iterator<Registration> it = registrations.iterator(); it.hasNext(); ) {
+			Registration registration = it.next();
+			if (registration.future.isDone()) {
+				// e.g. cancelled
+				it.remove();
+				continue;
+			}
+			if (now - registration.deadline > 0) {
+				it.remove();
+				String msg = "Timed out waiting for TCK Job Execution " + registration.executionId + " to reach " + registration.describeAwaited() + ".  Timeout (long msec) = " + registration.timeout;
+				logger.warning(msg);
+				registration.future.fail(new JobExecutionTimeoutException(msg));
+				continue;
+			}
+			if (now - registration.nextPoll < 0) {
+				nextSweep = earliest(nextSweep, earliest(registration.nextPoll, registration.deadline));
+				continue;
+			}
+			registration.nextPoll = now + registration.backoff.nextDelayNanos();
+			nextSweep = earliest(nextSweep, earliest(registration.nextPoll, registration.deadline));
+			Set<Long> executionIds = executionIdsByJobOp.get(registration.jobOp);
+			if (executionIds == null) {
+				executionIds = new HashSet<Long>();
+				executionIdsByJobOp.put(registration.jobOp, executionIds);
+			}
+			executionIds.add(registration.executionId);
+		}
+
+		for (Map.Entry<JobOperator, Set<Long>> entry : executionIdsByJobOp.entrySet()) {
+			Map<Long, JobExecution> executions = readExecutions(entry.getKey(), entry.getValue());
+			for (Iterator<Registration> it = registrations.iterator(); it.hasNext(); ) {
+				Registration registration = it.next();
+				if (registration.jobOp != entry.getKey()) {
+					continue;
+				}
+				// Also releases the waiters not yet due on an execution read for another one
+				JobExecution jobExecution = executions.get(registration.executionId);
+				if (jobExecution != null && registration.isReleasedBy(jobExecution)) {
+					it.remove();
+					registration.future.complete(jobExecution);
+				}
+			}
+		}
+		return nextSweep;
+	}
+
+	private static long earliest(long time, long otherTime) {
+		return otherTime - time < 0 ? otherTime : time;
+	}
+
+	private void fail(long executionId, RuntimeException failure) {
+		for (Iterator<Registration> it = registrations.iterator(); it.hasNext(); ) {
+			Registration registration = it.next();
+			if (registration.executionId == executionId) {
+				it.remove();
+				registration.future.fail(failure);
+			}
+		}
+	}
+
+	private static boolean isTerminated(JobExecution jobExecution) {
+		return terminatedStatuses.contains(jobExecution.getBatchStatus()) && jobExecution.getExitStatus() != null;
+	}
+
+	private class Sweeper implements Runnable {
+		@Override
+		public void run() {
+			long nextSweep = System.nanoTime();
+			while (true) {
+				try {
+					synchronized (lock) {
+						while (registrations.isEmpty()) {
+							lock.wait();
+						}
+						// A new registration wakes us up, as it may be due before the others
+						long delay = nextSweep - System.nanoTime();
+						if (delay > 0) {
+							TimeUnit.NANOSECONDS.timedWait(lock, delay);
+						}
+					}
+					nextSweep = sweep();
+				} catch (InterruptedException e) {
+					logger.warning("Sweep thread interrupted, exiting.");
+					return;
+				} catch (RuntimeException e) {
+					// Keep sweeping, the waiters will time out if this persists
+					logger.log(Level.WARNING, "Unexpected exception during sweep", e);
+					nextSweep = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(IDLE_SWEEP_INTERVAL);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A single wait on a single JobExecution.
+	 */
+	public static class Registration {
+
+		private final long executionId;
+		private final JobOperator jobOp;
+		private final long timeout;
+		private final long deadline;
+		private final Set<BatchStatus> batchStatuses;
+		private final DefaultJobExecutionFuture future = new DefaultJobExecutionFuture();
+		// Only used by the sweep thread, once registered
+		private final PollingSchedule.Backoff backoff;
+		private long nextPoll;
+
+		private Registration(long executionId, JobOperator jobOp, long timeout, Set<BatchStatus> batchStatuses, PollingSchedule.Backoff backoff) {
+			this.executionId = executionId;
+			this.jobOp = jobOp;
+			this.timeout = timeout;
+			this.batchStatuses = batchStatuses;
+			this.backoff = backoff;
+			long now = System.nanoTime();
+			this.deadline = now + TimeUnit.MILLISECONDS.toNanos(timeout);
+			this.nextPoll = now + backoff.nextDelayNanos();
+		}
+
+		public long getExecutionId() {
+			return executionId;
+		}
+
+		private String describeAwaited() {
+			return batchStatuses == null ? "terminated status" : "one of batch statuses: " + batchStatuses + " or a terminated status";
+		}
+
+		private boolean isReleasedBy(JobExecution jobExecution) {
+			if (batchStatuses == null) {
+				return isTerminated(jobExecution);
+			}
+			BatchStatus bs = jobExecution.getBatchStatus();
+			return batchStatuses.contains(bs) || terminatedStatuses.contains(bs);
+		}
+
+		/**
+		 * @return Future completed with the terminated JobExecution (or the JobExecution in
+		 * one of the batch statuses waited for).
+		 */
+		public JobExecutionFuture getFuture() {
+			return future;
+		}
+	}
+
+	// Full list:
+	//public enum BatchStatus {STARTING, STARTED, STOPPING, STOPPED, FAILED, COMPLETED, ABANDONED }
+	private static Set<BatchStatus> terminatedStatuses = new HashSet<BatchStatus>();
+	static {
+		terminatedStatuses.add(BatchStatus.STOPPED);
+		terminatedStatuses.add(BatchStatus.FAILED);
+		terminatedStatuses.add(BatchStatus.COMPLETED);
+		terminatedStatuses.add(BatchStatus.ABANDONED);
+	}
+}
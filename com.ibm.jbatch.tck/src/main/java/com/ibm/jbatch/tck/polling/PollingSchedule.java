@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.ibm.jbatch.tck.polling;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exponential backoff schedule used between polls of a JobExecution.
+ * 
+ * Polls tightly right after the job is started, since most TCK jobs finish within 
+ * a few milliseconds, then backs off (with some jitter) up to a cap for 
+ * longer-running jobs.
+ * 
+ * All values are configurable through system properties, in (possibly fractional) milliseconds:
+ * <ul>
+ *  <li>tck.execution.waiter.poll.initial - first delay, default 0.5
+ *  <li>tck.execution.waiter.poll.max - cap on the delay, default 100
+ *  <li>tck.execution.waiter.poll.multiplier - growth factor per poll, default 2
+ *  <li>tck.execution.waiter.poll.jitter - fraction of each delay randomized, default 0.2
+ * </ul>
+ * 
+ * Setting initial and max to the same value gives a constant polling interval.
+ */
+public final class PollingSchedule {
+
+	public static final String INITIAL_PROPERTY = "tck.execution.waiter.poll.initial";
+	public static final String MAX_PROPERTY = "tck.execution.waiter.poll.max";
+	public static final String MULTIPLIER_PROPERTY = "tck.execution.waiter.poll.multiplier";
+	public static final String JITTER_PROPERTY = "tck.execution.waiter.poll.jitter";
+
+	private static final Random random = new Random();
+
+	private final long initialNanos;
+	private final long maxNanos;
+	private final double multiplier;
+	private final double jitter;
+
+	public PollingSchedule(long initialNanos, long maxNanos, double multiplier, double jitter) {
+		if (initialNanos <= 0 || maxNanos < initialNanos) {
+			throw new IllegalArgumentException("Need 0 < initial <= max, found initial (nsec) = " + initialNanos + ", max (nsec) = " + maxNanos);
+		}
+		if (multiplier < 1 || jitter < 0 || jitter >= 1) {
+			throw new IllegalArgumentException("Need multiplier >= 1 and 0 <= jitter < 1, found multiplier = " + multiplier + ", jitter = " + jitter);
+		}
+		this.initialNanos = initialNanos;
+		this.maxNanos = maxNanos;
+		this.multiplier = multiplier;
+		this.jitter = jitter;
+	}
+
+	public static PollingSchedule fromSystemProperties() {
+		return new PollingSchedule(millisProperty(INITIAL_PROPERTY, "0.5"), millisProperty(MAX_PROPERTY, "100"),
+				Double.parseDouble(System.getProperty(MULTIPLIER_PROPERTY, "2")),
+				Double.parseDouble(System.getProperty(JITTER_PROPERTY, "0.2")));
+	}
+
+	private static long millisProperty(String name, String defaultValue) {
+		double millis = Double.parseDouble(System.getProperty(name, defaultValue));
+		return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	/**
+	 * @return A new, independent sequence of delays, starting from the initial delay.
+	 */
+	public Backoff start() {
+		return new Backoff();
+	}
+
+	/**
+	 * Not thread-safe; each waiter uses its own.
+	 */
+	public class Backoff {
+
+		private long currentNanos = initialNanos;
+
+		/**
+		 * @return The delay to wait before the next poll, in nanoseconds.
+		 */
+		public long nextDelayNanos() {
+			long delay = currentNanos;
+			currentNanos = Math.min(maxNanos, (long) (currentNanos * multiplier));
+			if (jitter > 0) {
+				double factor = 1 - jitter + (2 * jitter * random.nextDouble());
+				delay = (long) (delay * factor);
+			}
+			return Math.max(1, Math.min(maxNanos, delay));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "PollingSchedule[initial (nsec) = " + initialNanos + ", max (nsec) = " + maxNanos 
+				+ ", multiplier = " + multiplier + ", jitter = " + jitter + "]";
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.ibm.jbatch.tck.polling;
+
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import com.ibm.jbatch.tck.spi.AsyncJobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionFuture;
+import com.ibm.jbatch.tck.spi.JobExecutionStatusWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
+import com.ibm.jbatch.tck.utils.ServiceGateway;
+
+/**
+ * Polling implementation of the TCK "porting package" JobExecutionWaiterFactory SPI
+ * meant for waiting on many executions concurrently.
+ * 
+ * Instead of each waiter polling on its own, all waiters are registered with
+ * one {@link ExecutionWaiterRegistry}, shared by all instances of this factory, 
+ * whose single thread polls each registered execution on a backoff of its own.  If the runtime
+ * provides a JobExecutionBulkQuery, each sweep reads all those due in one call.  Waiters therefore
+ * implement AsyncJobExecutionWaiter without tying up a thread per wait.
+ * 
+ * Not the default; select it by setting system property:
+ * <pre>
+ *   tck.execution.waiter.factory=com.ibm.jbatch.tck.polling.TCKMultiplexingExecutionWaiterFactory
+ * </pre>
+ */
+public class TCKMultiplexingExecutionWaiterFactory implements JobExecutionWaiterFactory {
+
+	private final static String sourceClass = TCKMultiplexingExecutionWaiterFactory.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private final static ExecutionWaiterRegistry sharedRegistry = new ExecutionWaiterRegistry(PollingSchedule.fromSystemProperties(), 
+			ServiceGateway.getJobExecutionBulkQueryService());
+
+	private final ExecutionWaiterRegistry registry;
+
+	public TCKMultiplexingExecutionWaiterFactory() {
+		this(sharedRegistry);
+	}
+
+	public TCKMultiplexingExecutionWaiterFactory(ExecutionWaiterRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * @param executionId
+	 * @param JobOperator 
+	 * @param timeout In milliseconds
+	 * @return JobExecutionWaiter
+	 */
+	@Override
+	public JobExecutionWaiter createWaiter(long executionId, JobOperator jobOp, long timeout) {
+		return new TCKMultiplexedExecutionWaiter(executionId, jobOp, timeout);
+	}
+
+	public ExecutionWaiterRegistry getRegistry() {
+		return registry;
+	}
+
+	private class TCKMultiplexedExecutionWaiter implements AsyncJobExecutionWaiter, JobExecutionStatusWaiter {
+
+		private long executionId;
+		private JobOperator jobOp;
+		private long timeout;
+
+		private TCKMultiplexedExecutionWaiter(long executionId, JobOperator jobOp, long timeout) {
+			logger.fine("Creating waiter for executionId = " + executionId + ", jobOp = " + jobOp + ", timeout = " + timeout);
+			this.executionId = executionId;
+			this.jobOp = jobOp;
+			this.timeout = timeout;
+		}
+
+		/**
+		 * Wait for
+		 *   1) BatchStatus to be one of: STOPPED ,FAILED , COMPLETED, ABANDONED
+		 *     AND 
+		 *   2) exitStatus to be non-null
+		 * @return JobExecution
+		 */
+		@Override
+		public JobExecution awaitTermination() throws JobExecutionTimeoutException {
+			logger.fine("Entering awaitTermination for executionId = " + executionId);
+			return await(null);
+		}
+
+		/**
+		 * Wait for BatchStatus to be one of batchStatuses, or one of: STOPPED ,FAILED , COMPLETED, ABANDONED
+		 * @return JobExecution
+		 */
+		@Override
+		public JobExecution awaitStatus(Set<BatchStatus> batchStatuses) throws JobExecutionTimeoutException {
+			logger.fine("Entering awaitStatus for executionId = " + executionId + ", batchStatuses = " + batchStatuses);
+			return await(batchStatuses);
+		}
+
+		private JobExecution await(Set<BatchStatus> batchStatuses) throws JobExecutionTimeoutException {
+			ExecutionWaiterRegistry.Registration registration = registry.register(executionId, jobOp, timeout, batchStatuses);
+			try {
+				// The sweep fails the future on timeout, the local timeout only guards against the sweep dying
+				return registration.getFuture().get(timeout + 1000, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				String msg = "Timed out waiting for TCK Job Execution " + executionId + " to reach " + (batchStatuses == null ? "terminated status" : "one of batch statuses: " + batchStatuses + " or a terminated status") + ".  Timeout (long msec) = " + timeout;
+				logger.warning(msg);
+				throw new JobExecutionTimeoutException(msg);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof JobExecutionTimeoutException) {
+					throw (JobExecutionTimeoutException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new IllegalStateException(cause);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException("Aborting on interrupt", e);
+			} finally {
+				registry.unregister(registration);
+			}
+		}
+
+		@Override
+		public JobExecutionFuture awaitTerminationAsync() {
+			logger.fine("Entering awaitTerminationAsync for executionId = " + executionId);
+			return registry.register(executionId, jobOp, timeout).getFuture();
+		}
+	}
+}
@@ -26,8 +26,12 @@ import javax.batch.runtime.JobExecution;
 import java.lang.IllegalStateException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Logger;
 
+import com.ibm.jbatch.tck.spi.JobExecutionStatusWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionTimeline;
 import com.ibm.jbatch.tck.spi.JobExecutionWaiter;
 import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
 import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
@@ -39,13 +43,25 @@ import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
  * Uses polling to repeatedly check execution results, thereby
  * waiting for completion.  Uses private inner class TCKPollingExecutionWaiter
  * to perform this.
+ * 
+ * The interval between polls follows a {@link PollingSchedule}, starting short
+ * and backing off for long-running jobs.
  */
 public class TCKPollingExecutionWaiterFactory implements JobExecutionWaiterFactory {
 
     private final static String sourceClass = TCKPollingExecutionWaiterFactory.class.getName();
     private final static Logger logger = Logger.getLogger(sourceClass);
     
-	private final int POLL_INTERVAL = 100; // .1 second
+	private final PollingSchedule schedule;
+
+	public TCKPollingExecutionWaiterFactory() {
+		this(PollingSchedule.fromSystemProperties());
+	}
+
+	public TCKPollingExecutionWaiterFactory(PollingSchedule schedule) {
+		logger.fine("Polling with schedule: " + schedule);
+		this.schedule = schedule;
+	}
 
 	/**
 	 * This implementation does no pooling of any kind, it just creates a new instance with new thread each time.
@@ -57,20 +73,23 @@ public class TCKPollingExecutionWaiterFactory implements JobExecutionWaiterFacto
 	 */
 	@Override
 	public JobExecutionWaiter createWaiter(long executionId, JobOperator jobOp, long timeout) {
-		return new TCKPollingExecutionWaiter(executionId, jobOp, timeout);
+		return new TCKPollingExecutionWaiter(executionId, jobOp, timeout, null);
 	}
 
-	private class TCKPollingExecutionWaiter implements JobExecutionWaiter {
+	class TCKPollingExecutionWaiter implements JobExecutionStatusWaiter {
 
 		private long executionId;
 		private JobOperator jobOp;
 		private long timeout;
+		// Only set when recording
+		final JobExecutionTimeline timeline;
 
-		private TCKPollingExecutionWaiter(long executionId, JobOperator jobOp, long timeout) {
+		TCKPollingExecutionWaiter(long executionId, JobOperator jobOp, long timeout, JobExecutionTimeline timeline) {
 			logger.fine("Creating waiter for executionId = " + executionId + ", jobOp = " + jobOp + ", timeout = " + timeout);
 			this.executionId = executionId;
 			this.jobOp = jobOp;
 			this.timeout = timeout;			
+			this.timeline = timeline;
 		}
 
 		@Override
@@ -84,19 +103,41 @@ public class TCKPollingExecutionWaiterFactory implements JobExecutionWaiterFacto
 		 */
 		public JobExecution awaitTermination() throws JobExecutionTimeoutException {
 			logger.fine("Entering awaitTermination for executionId = " + executionId);
+			return poll(null);
+		}
+
+		/**
+		 * Wait for BatchStatus to be one of batchStatuses, or one of: STOPPED ,FAILED , COMPLETED, ABANDONED
+		 * @return JobExecution
+		 */
+		@Override
+		public JobExecution awaitStatus(Set<BatchStatus> batchStatuses) throws JobExecutionTimeoutException {
+			logger.fine("Entering awaitStatus for executionId = " + executionId + ", batchStatuses = " + batchStatuses);
+			return poll(batchStatuses);
+		}
+
+		/*
+		 * @param batchStatuses null to wait for termination
+		 */
+		private JobExecution poll(Set<BatchStatus> batchStatuses) throws JobExecutionTimeoutException {
 			JobExecution jobExecution = null;
 			
-			long startTime = System.currentTimeMillis();
+			// Use a monotonic clock, the wall clock may be adjusted while we wait
+			long startTime = System.nanoTime();
+			PollingSchedule.Backoff backoff = schedule.start();
 			
 			while (true) {				
 				try {
-					logger.finer("Sleeping for " + POLL_INTERVAL);
-					long curTime = System.currentTimeMillis();
-					timeOutIfExpired(startTime, curTime);
-					Thread.sleep(POLL_INTERVAL);
+					long delay = backoff.nextDelayNanos();
+					logger.finer("Sleeping for (nsec) " + delay);
+					timeOutIfExpired(startTime, System.nanoTime(), batchStatuses);
+					sleep(delay);
 					logger.finer("Wake up, check for termination.");
 					 jobExecution = jobOp.getJobExecution(executionId);
-					if (isTerminated(jobExecution)) {
+					if (timeline != null) {
+						timeline.record(jobExecution);
+					}
+					if (batchStatuses == null ? isTerminated(jobExecution) : isInStatus(jobExecution, batchStatuses)) {
 						break;
 					}
 				} catch (InterruptedException e) {
@@ -110,6 +151,21 @@ public class TCKPollingExecutionWaiterFactory implements JobExecutionWaiterFacto
 			return jobExecution;
 		}
 
+		/*
+		 * Thread.sleep() only has millisecond granularity, while the first few polls are sub-millisecond.
+		 */
+		private void sleep(long nanos) throws InterruptedException {
+			long wakeTime = System.nanoTime() + nanos;
+			long remaining = nanos;
+			while (remaining > 0) {
+				LockSupport.parkNanos(remaining);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				remaining = wakeTime - System.nanoTime();
+			}
+		}
+
 		private boolean isTerminated(JobExecution jobExecution) {
 			boolean retVal = false;
 			BatchStatus bs = jobExecution.getBatchStatus();
@@ -128,13 +184,28 @@ public class TCKPollingExecutionWaiterFactory implements JobExecutionWaiterFacto
 			}
 			return retVal;
 		}
-		private void timeOutIfExpired(long startTime, long curTime) {
-			long diff = curTime - startTime;
+		private boolean isInStatus(JobExecution jobExecution, Set<BatchStatus> batchStatuses) {
+			BatchStatus bs = jobExecution.getBatchStatus();
+			if (batchStatuses.contains(bs) || terminatedStatuses.contains(bs)) {
+				logger.fine("Found batch status of: " + bs.name());
+				return true;
+			}
+			logger.finer("Found batch status of: " + bs.name() + ", still waiting for one of: " + batchStatuses);
+			return false;
+		}
+
+		/*
+		 * @param batchStatuses null when waiting for termination
+		 */
+		private void timeOutIfExpired(long startTime, long curTime, Set<BatchStatus> batchStatuses) throws JobExecutionTimeoutException {
+			long diff = TimeUnit.NANOSECONDS.toMillis(curTime - startTime);
+			String awaited = batchStatuses == null ? "terminated status" : "one of batch statuses: " + batchStatuses + " or a terminated status";
 			if (diff > timeout) {
-				logger.warning("Timed out waiting for TCK Job Execution to reach terminated status.  Time elapsed (long msec) = " + diff + ", and timeout = " + timeout);
-				throw new IllegalStateException("Timed out waiting for TCK Job Execution to reach terminated status.  Time elapsed (long msec) = " + diff + ", and timeout = " + timeout);
+				String msg = "Timed out waiting for TCK Job Execution " + executionId + " to reach " + awaited + ".  Time elapsed (long msec) = " + diff + ", and timeout = " + timeout;
+				logger.warning(msg);
+				throw new JobExecutionTimeoutException(msg);
 			} else {
-				logger.finer("Still waiting for TCK Job Execution to reach terminated status.  Time elapsed (long msec) = " + diff + ", and timeout = " + timeout);
+				logger.finer("Still waiting for TCK Job Execution " + executionId + " to reach " + awaited + ".  Time elapsed (long msec) = " + diff + ", and timeout = " + timeout);
 			}
 		}
 
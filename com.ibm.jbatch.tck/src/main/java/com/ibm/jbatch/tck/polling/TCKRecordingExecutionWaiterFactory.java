@@ -0,0 +1,61 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.ibm.jbatch.tck.polling;
+
+import javax.batch.operations.JobOperator;
+
+import com.ibm.jbatch.tck.spi.JobExecutionTimeline;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.RecordingJobExecutionWaiter;
+
+/**
+ * Polling JobExecutionWaiterFactory whose waiters also record every batch status transition
+ * they observe, with the time it was observed, e.g. to measure the start and stop latencies of
+ * the runtime under test during a TCK run.
+ * 
+ * Polls on the same {@link PollingSchedule} as {@link TCKPollingExecutionWaiterFactory}, so the
+ * recorded times are at most one poll interval late.
+ */
+public class TCKRecordingExecutionWaiterFactory extends TCKPollingExecutionWaiterFactory {
+
+	public TCKRecordingExecutionWaiterFactory() {
+		super();
+	}
+
+	public TCKRecordingExecutionWaiterFactory(PollingSchedule schedule) {
+		super(schedule);
+	}
+
+	@Override
+	public JobExecutionWaiter createWaiter(long executionId, JobOperator jobOp, long timeout) {
+		return new TCKRecordingExecutionWaiter(executionId, jobOp, timeout);
+	}
+
+	private class TCKRecordingExecutionWaiter extends TCKPollingExecutionWaiter implements RecordingJobExecutionWaiter {
+
+		private TCKRecordingExecutionWaiter(long executionId, JobOperator jobOp, long timeout) {
+			super(executionId, jobOp, timeout, new JobExecutionTimeline(executionId));
+		}
+
+		@Override
+		public JobExecutionTimeline getTimeline() {
+			return timeline;
+		}
+	}
+}
@@ -24,7 +24,7 @@ import java.util.Properties;
 
 import javax.batch.runtime.BatchStatus;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -34,9 +34,9 @@ import com.ibm.jbatch.tck.utils.TCKJobExecutionWrapper;
 
 public class BatchletRestartStateMachineTests {
 
-	private static JobOperatorBridge jobOp = null;
+	private JobOperatorBridge jobOp = null;
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 
 		String METHOD = "setup";
 
@@ -48,8 +48,8 @@ public class BatchletRestartStateMachineTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
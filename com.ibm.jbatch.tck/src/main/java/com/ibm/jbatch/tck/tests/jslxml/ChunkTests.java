@@ -40,7 +40,7 @@ import com.ibm.jbatch.tck.artifacts.specialized.MySkipWriteListener;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 import com.ibm.jbatch.tck.utils.TCKJobExecutionWrapper;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.junit.Ignore;
 import org.testng.Reporter;
 import org.testng.annotations.BeforeMethod;
@@ -48,9 +48,14 @@ import org.testng.annotations.Test;
 
 public class ChunkTests {
 
-    private static JobOperatorBridge jobOp = null;
+    /**
+     * The time-limit of chunkTimeBasedCheckpoint.xml
+     */
+    private static final int TIME_LIMIT_SECONDS = 10;
+
+    private JobOperatorBridge jobOp = null;
 
-    public static void setup(String[] args, Properties props) throws Exception {
+    public void setup(String[] args, Properties props) throws Exception {
         String METHOD = "setup";
 
         try {
@@ -61,8 +66,8 @@ public class ChunkTests {
     }
 
     @BeforeMethod
-    @BeforeClass
-    public static void setUp() throws Exception {
+    @Before
+    public void setUp() throws Exception {
         jobOp = new JobOperatorBridge();
     }
 
@@ -595,11 +600,12 @@ public class ChunkTests {
             jobParams.put("readrecord.fail", "31");
             jobParams.put("app.arraysize", "30");
             jobParams.put("app.sleeptime", System.getProperty("ChunkTests.testChunkTimeBasedDefaultCheckpoint.sleep",DEFAULT_SLEEP_TIME));
+            String jobName = compressTime("chunkTimeBasedDefaultCheckpoint", jobParams);
 
             Reporter.log("Locate job XML file: chunkTimeBasedDefaultCheckpoint.xml<p>");
 
             Reporter.log("Invoke startJobAndWaitForResult for execution #1<p>");
-            JobExecution execution1 = jobOp.startJobAndWaitForResult("chunkTimeBasedDefaultCheckpoint", jobParams);
+            JobExecution execution1 = jobOp.startJobAndWaitForResult(jobName, jobParams);
             Reporter.log("execution #1 JobExecution getBatchStatus()=" + execution1.getBatchStatus() + "<p>");
             Reporter.log("execution #1 JobExecution getExitStatus()=" + execution1.getExitStatus() + "<p>");
             assertWithMessage("Testing execution #1", BatchStatus.COMPLETED, execution1.getBatchStatus());
@@ -641,11 +647,12 @@ public class ChunkTests {
             jobParams.put("app.arraysize", "30");
             
             jobParams.put("app.sleeptime", System.getProperty("ChunkTests.testChunkTimeBasedTimeLimit0.sleep",DEFAULT_SLEEP_TIME));
+            String jobName = compressTime("chunkTimeLimit0", jobParams);
 
             Reporter.log("Locate job XML file: chunkTimeLimit0.xml<p>");
 
             Reporter.log("Invoke startJobAndWaitForResult for execution #1<p>");
-            JobExecution execution1 = jobOp.startJobAndWaitForResult("chunkTimeLimit0", jobParams);
+            JobExecution execution1 = jobOp.startJobAndWaitForResult(jobName, jobParams);
             Reporter.log("execution #1 JobExecution getBatchStatus()=" + execution1.getBatchStatus() + "<p>");
             Reporter.log("execution #1 JobExecution getExitStatus()=" + execution1.getExitStatus() + "<p>");
             assertWithMessage("Testing execution #1", BatchStatus.COMPLETED, execution1.getBatchStatus());
@@ -686,9 +693,10 @@ public class ChunkTests {
 	        jobParams.put("readrecord.fail", "31");
 	        jobParams.put("app.arraysize", "30");
 	        jobParams.put("app.sleeptime", System.getProperty("ChunkTests.testChunkTimeBased10Seconds.sleep",DEFAULT_SLEEP_TIME));
+	        String jobName = compressTime("chunkTimeBasedCheckpoint", jobParams);
 	
 	
-	        JobExecution execution1 = jobOp.startJobAndWaitForResult("chunkTimeBasedCheckpoint", jobParams);
+	        JobExecution execution1 = jobOp.startJobAndWaitForResult(jobName, jobParams);
 	        assertWithMessage("Testing execution #1", BatchStatus.COMPLETED, execution1.getBatchStatus());
 	        String exitStatus = execution1.getExitStatus();
 	        assertWithMessage("Testing execution #1", (exitStatus.equals("TRUE: 9") || exitStatus.equals("TRUE: 10") || exitStatus.equals("TRUE: 11")));
@@ -732,11 +740,12 @@ public class ChunkTests {
             jobParams.put("readrecord.fail", "12");
             jobParams.put("app.arraysize", "30");
             jobParams.put("app.sleeptime", System.getProperty("ChunkTests.testChunkRestartTimeBasedCheckpoint.sleep",DEFAULT_SLEEP_TIME));
+            String jobName = compressTime("chunkTimeBasedCheckpoint", jobParams);
 
 
 
             Reporter.log("Invoke startJobAndWaitForResult for execution #1<p>");
-            TCKJobExecutionWrapper execution1 = jobOp.startJobAndWaitForResult("chunkTimeBasedCheckpoint", jobParams);
+            TCKJobExecutionWrapper execution1 = jobOp.startJobAndWaitForResult(jobName, jobParams);
             Reporter.log("execution #1 JobExecution getBatchStatus()=" + execution1.getBatchStatus() + "<p>");
             Reporter.log("execution #1 JobExecution getExitStatus()=" + execution1.getExitStatus() + "<p>");
             assertWithMessage("Testing execution #1", BatchStatus.FAILED, execution1.getBatchStatus());
@@ -800,11 +809,12 @@ public class ChunkTests {
             jobParams.put("readrecord.fail", "2");
             jobParams.put("app.arraysize", "30");
             jobParams.put("app.sleeptime", System.getProperty("ChunkTests.testChunkRestartTimeBasedDefaultCheckpoint.sleep",DEFAULT_SLEEP_TIME));
+            String jobName = compressTime("chunkTimeBasedDefaultCheckpoint", jobParams);
 
             Reporter.log("Locate job XML file: chunkTimeBasedDefaultCheckpoint.xml<p>");
 
             Reporter.log("Invoke startJobAndWaitForResult for execution #1<p>");
-            TCKJobExecutionWrapper execution1 = jobOp.startJobAndWaitForResult("chunkTimeBasedDefaultCheckpoint", jobParams);
+            TCKJobExecutionWrapper execution1 = jobOp.startJobAndWaitForResult(jobName, jobParams);
             Reporter.log("execution #1 JobExecution getBatchStatus()=" + execution1.getBatchStatus() + "<p>");
             Reporter.log("execution #1 JobExecution getExitStatus()=" + execution1.getExitStatus() + "<p>");
             assertWithMessage("Testing execution #1", BatchStatus.FAILED, execution1.getBatchStatus());
@@ -1681,6 +1691,32 @@ public class ChunkTests {
 
     }
     
+    /**
+     * Compresses the time of a time based checkpoint job by the tck.time.scale factor.  Above
+     * a factor of 1 this switches to the non-official copy of the job (e.g.
+     * chunkTimeBasedCheckpointCompressed.xml), whose items are read that much faster and whose
+     * chunk time limit is that much shorter, and whose MyTimeCheckpointListener reports the
+     * checkpoint intervals relative to the compressed interval, so the assertions stay the
+     * same, as does their +/- 1 second tolerance in real time.
+     * 
+     * @return the name of the job to start
+     */
+    private static String compressTime(String jobName, Properties jobParams) {
+        String scaleString = System.getProperty("tck.time.scale", "1");
+        int scale = Integer.parseInt(scaleString);
+        if (scale < 1 || TIME_LIMIT_SECONDS % scale != 0) {
+            throw new IllegalArgumentException("tck.time.scale must divide the " + TIME_LIMIT_SECONDS + " second time limit, got: " + scaleString);
+        }
+        if (scale == 1) {
+            return jobName;
+        }
+        Reporter.log("Compressing time by a factor of " + scale + "<p>");
+        jobParams.put("time.scale", scaleString);
+        jobParams.put("time.limit", Integer.toString(TIME_LIMIT_SECONDS / scale));
+        jobParams.put("app.sleeptime", Integer.toString(Integer.parseInt(jobParams.getProperty("app.sleeptime")) / scale));
+        return jobName + "Compressed";
+    }
+
     private void showStepState(StepExecution step) {
 
         Reporter.log("---------------------------<p>");
@@ -31,7 +31,7 @@ import javax.batch.runtime.StepExecution;
 
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeMethod;
@@ -40,10 +40,10 @@ import org.testng.annotations.Test;
 public class ContextAndListenerTests {
 
 	private final static Logger logger = Logger.getLogger(ContextAndListenerTests.class.getName());
-	private static JobOperatorBridge jobOp = null;
+	private JobOperatorBridge jobOp = null;
 
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 
 		String METHOD = "setup";
 
@@ -55,8 +55,8 @@ public class ContextAndListenerTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
@@ -28,7 +28,7 @@ import javax.batch.operations.JobStartException;
 import javax.batch.runtime.BatchStatus;
 import javax.batch.runtime.JobExecution;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -39,13 +39,13 @@ import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 
 public class DeciderTests implements StatusConstants {
 	private final static Logger logger = Logger.getLogger(DeciderTests.class.getName());
-	private static JobOperatorBridge jobOp = null;
+	private JobOperatorBridge jobOp = null;
 
 	private final static String FORCE_STOP_EXITSTATUS = "STEP_COMPLETE_BUT_FORCE_JOB_STOPPED_STATUS";
 	private final static String FORCE_FAIL_EXITSTATUS = "STEP_COMPLETE_BUT_FORCE_JOB_FAILED_STATUS";
 
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 
 		try {
@@ -56,8 +56,8 @@ public class DeciderTests implements StatusConstants {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();                              
 	}
 
@@ -29,7 +29,7 @@ import javax.batch.runtime.JobExecution;
 import com.ibm.jbatch.tck.artifacts.specialized.BatchletUsingStepContextImpl;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -37,10 +37,10 @@ import org.testng.annotations.Test;
 public class ExecuteTests {
 
 	private final static Logger logger = Logger.getLogger(ExecuteTests.class.getName());
-	private static JobOperatorBridge jobOp = null;
+	private JobOperatorBridge jobOp = null;
 
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 
 		try {
@@ -51,8 +51,8 @@ public class ExecuteTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
@@ -29,7 +29,7 @@ import javax.batch.runtime.JobExecution;
 
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.junit.Ignore;
 import org.testng.Reporter;
 import org.testng.annotations.AfterClass;
@@ -40,9 +40,9 @@ public class ExecutionTests {
 
 	private final static Logger logger = Logger.getLogger(ExecutionTests.class.getName());
 
-	private static JobOperatorBridge jobOp;
+	private JobOperatorBridge jobOp;
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 
 		try {
@@ -53,8 +53,8 @@ public class ExecutionTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
@@ -35,12 +35,13 @@ import javax.batch.runtime.JobInstance;
 import javax.batch.runtime.Metric;
 import javax.batch.runtime.StepExecution;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.ibm.jbatch.tck.artifacts.common.SignalBulletinBoard;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 import com.ibm.jbatch.tck.utils.TCKJobExecutionWrapper;
 
@@ -48,9 +49,9 @@ public class JobOperatorTests {
 
 	private final static Logger logger = Logger.getLogger(JobOperatorTests.class.getName());
 
-	private static JobOperatorBridge jobOp;
+	private JobOperatorBridge jobOp;
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 
 		String METHOD = "setup";
 
@@ -68,8 +69,8 @@ public class JobOperatorTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
@@ -277,9 +278,9 @@ public class JobOperatorTests {
 	 * @testName: testJobOperatorAbandonJobDuringARestart
 	 * 
 	 * @assertion: testJobOperatorAbandonJobDuringARestart
-	 * @test_Strategy: start a job that is configured to fail. Change configuration of job to cause the job to sleep for 5 seconds. Restart job
+	 * @test_Strategy: start a job that is configured to fail. Change configuration of job to cause the job to stay active for up to 5 seconds. Restart job
 	 *                 and let it run without waiting for completion.  Attempt to abandon the job and confirm a JobExecutionIsRunningException
-	 *                 is caught.
+	 *                 is caught, then let the job complete.
 	 *                 
 	 *                  
 	 * @throws JobExecutionAlreadyCompleteException
@@ -344,6 +345,10 @@ public class JobOperatorTests {
 					Reporter.log("Caught JobExecutionIsRunningException as expected<p>");
 					seen = true;
 				}
+				finally {
+					Reporter.log("Release the restarted batchlet<p>");
+					SignalBulletinBoard.signal(secondExecutionId, "step1", SignalBulletinBoard.RESTART_HELD_ACTIVE);
+				}
 				assertWithMessage("Did not see expected JobExecutionIsRunningException for abandon attempt during restart" , seen);
 				
 			}
@@ -457,9 +462,17 @@ public class JobOperatorTests {
 			Reporter.log("Invoking startJobWithoutWaitingForResult for Execution #1<p>");
 			JobExecution jobExec = jobOp.startJobWithoutWaitingForResult("job_batchlet_longrunning", jobParameters);
 
+			// Wait for the batchlet to be inside its loop, since a stop issued once step1 is merely STARTED can
+			// come before the batchlet exists, with the configured sleep as an upper bound
 			int sleepTime = Integer.parseInt(System.getProperty("JobOperatorTests.testInvokeJobWithUserStop.sleep",DEFAULT_SLEEP_TIME));
-			Reporter.log("Thread.sleep(" +  sleepTime + ")<p>");
-			Thread.sleep(sleepTime);
+			Reporter.log("Wait up to " + sleepTime + " ms for the batchlet to enter its loop<p>");
+			boolean signalled = jobOp.awaitSignal(jobExec.getExecutionId(), "step1", SignalBulletinBoard.BATCHLET_ENTERED_LOOP, 1, sleepTime);
+			SignalBulletinBoard.clear(jobExec.getExecutionId());
+			if (!signalled) {
+				// Don't leave the job running indefinitely
+				jobOp.stopJobWithoutWaitingForResult(jobExec.getExecutionId());
+			}
+			assertWithMessage("Batchlet signalled it entered its loop within " + sleepTime + " ms", signalled);
 
 			Reporter.log("Invoking stopJobAndWaitForResult for Execution #1<p>");
 			jobOp.stopJobAndWaitForResult(jobExec);
@@ -1046,7 +1059,6 @@ public class JobOperatorTests {
 		String METHOD = "testJobOperatorGetRunningJobExecutions";
 		begin(METHOD);
 		
-		final String DEFAULT_SLEEP_TIME = "1000";
 		final String DEFAULT_APP_TIME_INTERVAL = "10000";
 
 		try {
@@ -1065,11 +1077,10 @@ public class JobOperatorTests {
 
 			JobExecution exec = jobOp.startJobWithoutWaitingForResult("job_batchlet_step_listener", newJobParameters);
 
-			// Sleep to give the runtime the chance to start the job.  The job has a delay built into the stepListener afterStep() 
+			// Wait for the runtime to start the job.  The job has a delay built into the stepListener afterStep() 
 			// so we aren't worried about the job finishing early leaving zero running executions.
-			int sleepTime = Integer.parseInt(System.getProperty("ExecutionTests.testJobOperatorGetRunningJobExecutions.sleep",DEFAULT_SLEEP_TIME));
-			Reporter.log("Thread.sleep(" + sleepTime + ")<p>");
-			Thread.sleep(sleepTime);
+			Reporter.log("Wait for execution to be STARTED<p>");
+			jobOp.awaitStatus(exec.getExecutionId(), BatchStatus.STARTED);
 
 			List<Long> jobExecutions = jobOp.getRunningExecutions("job_batchlet_step_listener");
 			assertWithMessage("Found job instances in the RUNNING state", jobExecutions.size() > 0);
@@ -25,7 +25,7 @@ import java.util.Properties;
 import javax.batch.runtime.BatchStatus;
 import javax.batch.runtime.JobExecution;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -35,11 +35,11 @@ import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 
 
 public class ListenerOnErrorTests {
-	private static JobOperatorBridge jobOp = null;
+	private JobOperatorBridge jobOp = null;
 	
 	@BeforeMethod
-	@BeforeClass
-	public static void setup() throws Exception {
+	@Before
+	public void setup() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
@@ -29,7 +29,7 @@ import javax.batch.runtime.JobExecution;
 import javax.batch.runtime.Metric;
 import javax.batch.runtime.StepExecution;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -39,9 +39,9 @@ import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 
 public class MetricsTests {
 
-	private static JobOperatorBridge jobOp = null;
+	private JobOperatorBridge jobOp = null;
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 
 		try {
@@ -52,8 +52,8 @@ public class MetricsTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
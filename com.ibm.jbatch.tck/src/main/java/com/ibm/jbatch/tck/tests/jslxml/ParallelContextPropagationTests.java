@@ -38,7 +38,7 @@ import org.testng.annotations.Test;
 
 public class ParallelContextPropagationTests {
 
-	private static JobOperatorBridge jobOp = null;
+	private JobOperatorBridge jobOp = null;
 
 	@TCKTest(
 		versions={"1.1.WORKING"},
@@ -31,14 +31,16 @@ import javax.batch.runtime.BatchStatus;
 import javax.batch.runtime.JobExecution;
 import javax.batch.runtime.StepExecution;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.ibm.jbatch.tck.artifacts.common.SignalBulletinBoard;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 import com.ibm.jbatch.tck.utils.TCKJobExecutionWrapper;
+import com.ibm.jbatch.tck.utils.TestWallTime;
 
 
 public class ParallelExecutionTests {
@@ -47,9 +49,12 @@ public class ParallelExecutionTests {
 
 	private static final String TIME_TO_SLEEP_BEFORE_ISSUING_STOP = "1900"; 
 
-	private static JobOperatorBridge jobOp = null;
+	// Matches the partition plan of job_batchlet_longrunning_partitioned.xml
+	private static final int LONGRUNNING_PARTITIONS = 4;
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	private JobOperatorBridge jobOp = null;
+
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 
 		try {
@@ -60,8 +65,8 @@ public class ParallelExecutionTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
@@ -166,10 +171,9 @@ public class ParallelExecutionTests {
 			Reporter.log("Invoke startJobWithoutWaitingForResult<p>");
 			JobExecution jobExecution =  jobOp.startJobWithoutWaitingForResult("job_batchlet_longrunning_partitioned", overrideJobParams);
 
-			//Sleep long enough for parallel steps to fan out
+			// Wait for all the partitions to be inside the batchlet loop, with the configured sleep as an upper bound
 			int sleepTime = Integer.parseInt(System.getProperty("ParallelExecutionTests.testStopRunningPartitionedStep.sleep",TIME_TO_SLEEP_BEFORE_ISSUING_STOP));
-			Reporter.log("Sleep for " + TIME_TO_SLEEP_BEFORE_ISSUING_STOP);
-			Thread.sleep(sleepTime);
+			awaitPartitionsRunning(jobExecution.getExecutionId(), sleepTime);
 
 
 			Reporter.log("Invoke stopJobAndWaitForResult<p>");
@@ -211,10 +215,9 @@ public class ParallelExecutionTests {
 			Reporter.log("Invoke startJobWithoutWaitingForResult<p>");
 			JobExecution origJobExecution = jobOp.startJobWithoutWaitingForResult("job_batchlet_longrunning_partitioned", jobParams);
 
-			// Sleep long enough for parallel steps to fan out
+			// Wait for all the partitions to be inside the batchlet loop, with the configured sleep as an upper bound
 			int sleepTime = Integer.parseInt(System.getProperty("ParallelExecutionTests.testStopRestartRunningPartitionedStep.sleep",TIME_TO_SLEEP_BEFORE_ISSUING_STOP));
-			Reporter.log("Sleep for " + TIME_TO_SLEEP_BEFORE_ISSUING_STOP);
-			Thread.sleep(sleepTime);
+			awaitPartitionsRunning(origJobExecution.getExecutionId(), sleepTime);
 
 			Reporter.log("Invoke stopJobAndWaitForResult<p>");
 			jobOp.stopJobAndWaitForResult(origJobExecution);
@@ -600,6 +603,19 @@ public class ParallelExecutionTests {
         }
     }
     
+	private void awaitPartitionsRunning(long executionId, int timeoutMillis) throws InterruptedException {
+		Reporter.log("Wait up to " + timeoutMillis + " ms for " + LONGRUNNING_PARTITIONS + " partitions to enter the batchlet loop<p>");
+		boolean running = jobOp.awaitSignal(executionId, "step1", SignalBulletinBoard.BATCHLET_ENTERED_LOOP, LONGRUNNING_PARTITIONS, timeoutMillis);
+		if (!running) {
+			// Artifacts running in another JVM can't signal, which leaves us with the plain sleep.
+			// In the same JVM, it means the partitions were slow to start, which the wall time report shows.
+			logger.warning("Partitions of execution " + executionId + " did not signal within " + timeoutMillis + " ms, proceeding anyway");
+			Reporter.log("Partitions did not signal within " + timeoutMillis + " ms, proceeding anyway<p>");
+			TestWallTime.recordSignalTimeout();
+		}
+		SignalBulletinBoard.clear(executionId);
+	}
+
 	private static void handleException(String methodName, Exception e) throws Exception {
 		Reporter.log("Caught exception: " + e.getMessage()+"<p>");
 		Reporter.log(methodName + " failed<p>");
@@ -37,7 +37,7 @@ import com.ibm.jbatch.tck.ann.*;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 
 public class PartitionRerunTests {
-	static JobOperatorBridge jobOp = null;
+	JobOperatorBridge jobOp = null;
 
 	private static void handleException(String methodName, Exception e) throws Exception {
 		Reporter.log("Caught exception: " + e.getMessage()+"<p>");
@@ -26,23 +26,25 @@ import java.util.Properties;
 import javax.batch.runtime.BatchStatus;
 import javax.batch.runtime.JobExecution;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.ibm.jbatch.tck.artifacts.common.SignalBulletinBoard;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 import com.ibm.jbatch.tck.utils.TCKJobExecutionWrapper;
+import com.ibm.jbatch.tck.utils.TestWallTime;
 
 public class StopOrFailOnExitStatusWithRestartTests {
 
-	private static JobOperatorBridge jobOp;
+	private JobOperatorBridge jobOp;
 
 	private void begin(String str) {
 		Reporter.log("Begin test method: " + str+"<p>");
 	}
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 		try {
 			jobOp = new JobOperatorBridge();
@@ -52,8 +54,8 @@ public class StopOrFailOnExitStatusWithRestartTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
@@ -88,9 +90,16 @@ public class StopOrFailOnExitStatusWithRestartTests {
 			long execID = execution1.getExecutionId(); 
 			Reporter.log("StopRestart: Started job with execId=" + execID + "<p>");
 
+			// Wait for the batchlet to be inside its loop, with the configured sleep as an upper bound
 			int sleepTime = Integer.parseInt(System.getProperty("StopOrFailOnExitStatusWithRestartTests.testInvokeJobWithUserStop.sleep",DEFAULT_SLEEP_TIME));
-			Reporter.log("Sleep " +  sleepTime  + "<p>");
-			Thread.sleep(sleepTime); 
+			Reporter.log("Wait up to " + sleepTime + " ms for the batchlet to enter its loop<p>");
+			if (!jobOp.awaitSignal(execID, "step1", SignalBulletinBoard.BATCHLET_ENTERED_LOOP, 1, sleepTime)) {
+				// Artifacts running in another JVM can't signal, which leaves us with the plain sleep.
+				// In the same JVM, it means the batchlet was slow to start, which the wall time report shows.
+				Reporter.log("Batchlet did not signal within " + sleepTime + " ms, proceeding anyway<p>");
+				TestWallTime.recordSignalTimeout();
+			}
+			SignalBulletinBoard.clear(execID);
 
 			BatchStatus exec1BatchStatus = execution1.getBatchStatus();
 			Reporter.log("execution #1 JobExecution getBatchStatus()="+ exec1BatchStatus + "<p>");
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.utils;
+
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Selects the test methods affected by a change, so that a runtime developer working on e.g. the
+ * chunk engine only reruns the tests running chunk steps.
+ *
+ * The index goes:
+ * <ul>
+ *   <li>from each test method to the jobs it started the last time it ran, as recorded in the
+ *       {@link TestHistory} of the earlier runs</li>
+ *   <li>from each job to the JSL elements it uses (chunk, split, decision, partition, ...) and the
+ *       artifacts it references, from its job XML under META-INF/batch-jobs</li>
+ *   <li>from each artifact reference to its class, from META-INF/batch.xml</li>
+ * </ul>
+ * A change is named by any of these: a JSL element name standing for the runtime component
+ * executing it, an artifact reference, an artifact class (fully qualified or not), or a job name.
+ * Test methods missing from the index, e.g. new ones, are always selected.
+ */
+public class AffectedTestIndex {
+
+	private final static String sourceClass = AffectedTestIndex.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private static final String JOB_XML_DIR = "META-INF/batch-jobs/";
+	private static final String BATCH_XML = "META-INF/batch.xml";
+
+	private final TestHistory history;
+	private final Map<String, Set<String>> jobKeys = new HashMap<String, Set<String>>();
+	private final Map<String, String> artifactClasses;
+	private final ClassLoader classLoader;
+
+	public AffectedTestIndex(TestHistory history, ClassLoader classLoader) throws Exception {
+		this.history = history;
+		this.classLoader = classLoader;
+		this.artifactClasses = readArtifactClasses(classLoader);
+	}
+
+	public boolean isEmpty() {
+		return history.isEmpty();
+	}
+
+	/**
+	 * @return The affected methods of the test class, by name.
+	 */
+	public Set<String> getAffectedMethods(String testClassName, Collection<String> changes) throws Exception {
+		Set<String> affected = new LinkedHashSet<String>();
+		for (Method method : classLoader.loadClass(testClassName).getMethods()) {
+			if (method.getAnnotation(Test.class) == null) {
+				continue;
+			}
+			Set<String> jobs = history.getJobs(testClassName + "#" + method.getName());
+			if (jobs == null) {
+				// Not in the index, so we can't tell
+				affected.add(method.getName());
+				continue;
+			}
+			for (String job : jobs) {
+				if (isAffected(job, changes)) {
+					affected.add(method.getName());
+					break;
+				}
+			}
+		}
+		return affected;
+	}
+
+	private boolean isAffected(String jobName, Collection<String> changes) throws Exception {
+		Set<String> keys = getKeys(jobName);
+		for (String change : changes) {
+			if (keys.contains(change)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The job name, JSL element names, artifact references and artifact class names the job depends on.
+	 */
+	private Set<String> getKeys(String jobName) throws Exception {
+		Set<String> keys = jobKeys.get(jobName);
+		if (keys != null) {
+			return keys;
+		}
+		keys = new HashSet<String>();
+		keys.add(jobName);
+		InputStream in = classLoader.getResourceAsStream(JOB_XML_DIR + jobName + ".xml");
+		if (in != null) {
+			try {
+				NodeList elements = parse(in).getElementsByTagName("*");
+				for (int i = 0; i < elements.getLength(); i++) {
+					Element element = (Element) elements.item(i);
+					keys.add(localName(element));
+					String ref = element.getAttribute("ref");
+					if (ref.length() > 0) {
+						keys.add(ref);
+						String className = artifactClasses.get(ref);
+						if (className != null) {
+							keys.add(className);
+							keys.add(className.substring(className.lastIndexOf('.') + 1));
+						}
+					}
+				}
+			} finally {
+				in.close();
+			}
+		}
+		jobKeys.put(jobName, keys);
+		return keys;
+	}
+
+	private static Map<String, String> readArtifactClasses(ClassLoader classLoader) throws Exception {
+		Map<String, String> artifactClasses = new HashMap<String, String>();
+		InputStream in = classLoader.getResourceAsStream(BATCH_XML);
+		if (in == null) {
+			return artifactClasses;
+		}
+		try {
+			NodeList refs = parse(in).getElementsByTagNameNS("*", "ref");
+			for (int i = 0; i < refs.getLength(); i++) {
+				Element ref = (Element) refs.item(i);
+				artifactClasses.put(ref.getAttribute("id"), ref.getAttribute("class"));
+			}
+		} finally {
+			in.close();
+		}
+		return artifactClasses;
+	}
+
+	private static Document parse(InputStream in) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		return factory.newDocumentBuilder().parse(in);
+	}
+
+	private static String localName(Element element) {
+		return element.getLocalName() != null ? element.getLocalName() : element.getTagName();
+	}
+}
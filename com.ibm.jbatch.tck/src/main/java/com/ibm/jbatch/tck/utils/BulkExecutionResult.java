@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.ibm.jbatch.tck.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The executions of a bulk start or restart by {@link JobOperatorBridge}, in the order their
+ * parameters were given, along with aggregate throughput and latency statistics.
+ * 
+ * The latency of an execution runs from just before it was submitted until its waiter saw it 
+ * terminate, so includes any polling delay of the waiter.
+ */
+public class BulkExecutionResult {
+
+	private final List<TCKJobExecutionWrapper> executions;
+	private final long[] latencyNanos;
+	private final long[] sortedLatencyNanos;
+	private final long elapsedNanos;
+
+	BulkExecutionResult(TCKJobExecutionWrapper[] executions, long[] latencyNanos, long elapsedNanos) {
+		this.executions = Collections.unmodifiableList(Arrays.asList(executions));
+		this.latencyNanos = latencyNanos;
+		this.sortedLatencyNanos = latencyNanos.clone();
+		Arrays.sort(sortedLatencyNanos);
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public List<TCKJobExecutionWrapper> getExecutions() {
+		return executions;
+	}
+
+	/**
+	 * @return The latency of the index'th execution.
+	 */
+	public long getLatencyNanos(int index) {
+		return latencyNanos[index];
+	}
+
+	/**
+	 * @return The time from the first submission until the last execution terminated.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return Executions terminated per second, over the elapsed time.
+	 */
+	public double getThroughput() {
+		if (elapsedNanos <= 0) {
+			return 0;
+		}
+		return executions.size() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+
+	public long getMinLatencyNanos() {
+		return sortedLatencyNanos.length == 0 ? 0 : sortedLatencyNanos[0];
+	}
+
+	public long getMaxLatencyNanos() {
+		return sortedLatencyNanos.length == 0 ? 0 : sortedLatencyNanos[sortedLatencyNanos.length - 1];
+	}
+
+	public long getMeanLatencyNanos() {
+		if (sortedLatencyNanos.length == 0) {
+			return 0;
+		}
+		long sum = 0;
+		for (long latency : sortedLatencyNanos) {
+			sum += latency;
+		}
+		return sum / sortedLatencyNanos.length;
+	}
+
+	/**
+	 * @param percentile Between 0 and 100, e.g. 99 for the 99th percentile.
+	 * @return The latency which the given percentage of executions didn't exceed (nearest rank).
+	 */
+	public long getLatencyPercentileNanos(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100, not: " + percentile);
+		}
+		if (sortedLatencyNanos.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile / 100 * sortedLatencyNanos.length);
+		return sortedLatencyNanos[Math.max(rank, 1) - 1];
+	}
+
+	@Override
+	public String toString() {
+		return "BulkExecutionResult[executions=" + executions.size() 
+				+ ", elapsed(ms)=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos)
+				+ ", throughput(/s)=" + String.format("%.2f", getThroughput())
+				+ ", latency(ms) min=" + TimeUnit.NANOSECONDS.toMillis(getMinLatencyNanos())
+				+ " mean=" + TimeUnit.NANOSECONDS.toMillis(getMeanLatencyNanos())
+				+ " p50=" + TimeUnit.NANOSECONDS.toMillis(getLatencyPercentileNanos(50))
+				+ " p99=" + TimeUnit.NANOSECONDS.toMillis(getLatencyPercentileNanos(99))
+				+ " max=" + TimeUnit.NANOSECONDS.toMillis(getMaxLatencyNanos()) + "]";
+	}
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2012 International Business Machines Corp.
+ * 
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License, 
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.ibm.jbatch.tck.utils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.JobSecurityException;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
+
+/**
+ * Immutable view of a job execution, its job instance, and all its step executions with their
+ * metrics, read from the JobOperator in one pass.
+ * 
+ * Tests checking many attributes, or reports summarizing many executions, can then read them all
+ * from memory rather than with a JobOperator call apiece.  Step attributes are kept in arrays indexed
+ * by step, in the order returned by {@link JobOperator#getStepExecutions(long)}, and metrics in a 
+ * primitive array per step, indexed by {@link Metric.MetricType#ordinal()}.
+ * 
+ * Times are in milliseconds since the epoch, or -1 where the runtime returned no date.
+ */
+public final class ExecutionSnapshot {
+
+	private static final int METRIC_TYPES = Metric.MetricType.values().length;
+
+	private final long instanceId;
+	private final long executionId;
+	private final String jobName;
+	private final BatchStatus batchStatus;
+	private final String exitStatus;
+	private final Properties jobParameters;
+	private final long createTime;
+	private final long startTime;
+	private final long endTime;
+	private final long lastUpdatedTime;
+
+	private final long[] stepExecutionIds;
+	private final String[] stepNames;
+	private final BatchStatus[] stepBatchStatuses;
+	private final String[] stepExitStatuses;
+	private final long[] stepStartTimes;
+	private final long[] stepEndTimes;
+	private final long[][] stepMetrics;
+
+	private ExecutionSnapshot(JobInstance jobInstance, JobExecution jobExecution, List<StepExecution> stepExecutions) {
+		instanceId = jobInstance.getInstanceId();
+		executionId = jobExecution.getExecutionId();
+		jobName = jobExecution.getJobName();
+		batchStatus = jobExecution.getBatchStatus();
+		exitStatus = jobExecution.getExitStatus();
+		jobParameters = new Properties();
+		if (jobExecution.getJobParameters() != null) {
+			jobParameters.putAll(jobExecution.getJobParameters());
+		}
+		createTime = toMillis(jobExecution.getCreateTime());
+		startTime = toMillis(jobExecution.getStartTime());
+		endTime = toMillis(jobExecution.getEndTime());
+		lastUpdatedTime = toMillis(jobExecution.getLastUpdatedTime());
+
+		int steps = stepExecutions.size();
+		stepExecutionIds = new long[steps];
+		stepNames = new String[steps];
+		stepBatchStatuses = new BatchStatus[steps];
+		stepExitStatuses = new String[steps];
+		stepStartTimes = new long[steps];
+		stepEndTimes = new long[steps];
+		stepMetrics = new long[steps][METRIC_TYPES];
+		for (int i = 0; i < steps; i++) {
+			StepExecution stepExecution = stepExecutions.get(i);
+			stepExecutionIds[i] = stepExecution.getStepExecutionId();
+			stepNames[i] = stepExecution.getStepName();
+			stepBatchStatuses[i] = stepExecution.getBatchStatus();
+			stepExitStatuses[i] = stepExecution.getExitStatus();
+			stepStartTimes[i] = toMillis(stepExecution.getStartTime());
+			stepEndTimes[i] = toMillis(stepExecution.getEndTime());
+			Metric[] metrics = stepExecution.getMetrics();
+			if (metrics != null) {
+				for (Metric metric : metrics) {
+					stepMetrics[i][metric.getType().ordinal()] = metric.getValue();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the execution, its job instance and its step executions.
+	 */
+	public static ExecutionSnapshot load(JobOperator jobOp, long executionId) throws NoSuchJobExecutionException, JobSecurityException {
+		JobExecution jobExecution = jobOp.getJobExecution(executionId);
+		JobInstance jobInstance = jobOp.getJobInstance(executionId);
+		List<StepExecution> stepExecutions = jobOp.getStepExecutions(executionId);
+		return new ExecutionSnapshot(jobInstance, jobExecution, stepExecutions);
+	}
+
+	private static long toMillis(Date date) {
+		return date == null ? -1 : date.getTime();
+	}
+
+	public long getInstanceId() {
+		return instanceId;
+	}
+
+	public long getExecutionId() {
+		return executionId;
+	}
+
+	public String getJobName() {
+		return jobName;
+	}
+
+	public BatchStatus getBatchStatus() {
+		return batchStatus;
+	}
+
+	public String getExitStatus() {
+		return exitStatus;
+	}
+
+	/**
+	 * @return A copy of the job parameters, empty if there were none.
+	 */
+	public Properties getJobParameters() {
+		Properties copy = new Properties();
+		copy.putAll(jobParameters);
+		return copy;
+	}
+
+	public long getCreateTime() {
+		return createTime;
+	}
+
+	public long getStartTime() {
+		return startTime;
+	}
+
+	public long getEndTime() {
+		return endTime;
+	}
+
+	public long getLastUpdatedTime() {
+		return lastUpdatedTime;
+	}
+
+	/**
+	 * @return The time from creation until the start of the execution, or -1 if it didn't start.
+	 */
+	public long getQueuedMillis() {
+		return between(createTime, startTime);
+	}
+
+	/**
+	 * @return The time from the start until the end of the execution, or -1 if it didn't end.
+	 */
+	public long getDurationMillis() {
+		return between(startTime, endTime);
+	}
+
+	public int getStepCount() {
+		return stepNames.length;
+	}
+
+	/**
+	 * @return The index of the step with the given name, or -1 if it didn't run in this execution.
+	 */
+	public int getStepIndex(String stepName) {
+		for (int i = 0; i < stepNames.length; i++) {
+			if (stepNames[i].equals(stepName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public long getStepExecutionId(int step) {
+		return stepExecutionIds[step];
+	}
+
+	public String getStepName(int step) {
+		return stepNames[step];
+	}
+
+	public BatchStatus getStepBatchStatus(int step) {
+		return stepBatchStatuses[step];
+	}
+
+	public String getStepExitStatus(int step) {
+		return stepExitStatuses[step];
+	}
+
+	public long getStepStartTime(int step) {
+		return stepStartTimes[step];
+	}
+
+	public long getStepEndTime(int step) {
+		return stepEndTimes[step];
+	}
+
+	/**
+	 * @return The time from the start until the end of the step, or -1 if it didn't end.
+	 */
+	public long getStepDurationMillis(int step) {
+		return between(stepStartTimes[step], stepEndTimes[step]);
+	}
+
+	public long getMetric(int step, Metric.MetricType type) {
+		return stepMetrics[step][type.ordinal()];
+	}
+
+	/**
+	 * @throws IllegalArgumentException If the step didn't run in this execution.
+	 */
+	public long getMetric(String stepName, Metric.MetricType type) {
+		int step = getStepIndex(stepName);
+		if (step == -1) {
+			throw new IllegalArgumentException("No step: " + stepName + " in job execution: " + executionId);
+		}
+		return getMetric(step, type);
+	}
+
+	/**
+	 * @return The sum of the metric over all steps.
+	 */
+	public long getTotalMetric(Metric.MetricType type) {
+		long total = 0;
+		for (long[] metrics : stepMetrics) {
+			total += metrics[type.ordinal()];
+		}
+		return total;
+	}
+
+	private static long between(long from, long to) {
+		return from == -1 || to == -1 ? -1 : to - from;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder("ExecutionSnapshot[executionId=").append(executionId)
+				.append(", instanceId=").append(instanceId)
+				.append(", jobName=").append(jobName)
+				.append(", batchStatus=").append(batchStatus)
+				.append(", exitStatus=").append(exitStatus)
+				.append(", duration(ms)=").append(getDurationMillis());
+		for (int i = 0; i < stepNames.length; i++) {
+			buf.append(", ").append(stepNames[i]).append("=").append(stepBatchStatuses[i])
+				.append("/").append(getStepDurationMillis(i)).append("ms");
+		}
+		return buf.append("]").toString();
+	}
+}
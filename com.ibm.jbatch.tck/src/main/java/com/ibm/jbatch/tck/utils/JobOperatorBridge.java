@@ -19,8 +19,17 @@
 package com.ibm.jbatch.tck.utils;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
 
 import javax.batch.operations.JobExecutionAlreadyCompleteException;
@@ -35,15 +44,26 @@ import javax.batch.operations.NoSuchJobException;
 import javax.batch.operations.NoSuchJobExecutionException;
 import javax.batch.operations.NoSuchJobInstanceException;
 import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
 import javax.batch.runtime.JobExecution;
 import javax.batch.runtime.JobInstance;
 import javax.batch.runtime.StepExecution;
 
 import org.testng.Reporter;
 
+import com.ibm.jbatch.tck.artifacts.common.SignalBulletinBoard;
+import com.ibm.jbatch.tck.polling.PollingSchedule;
+import com.ibm.jbatch.tck.spi.AsyncJobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.AsyncJobExecutionWaiterAdapter;
+import com.ibm.jbatch.tck.spi.DefaultJobExecutionFuture;
+import com.ibm.jbatch.tck.spi.JobExecutionCallback;
+import com.ibm.jbatch.tck.spi.JobExecutionFuture;
+import com.ibm.jbatch.tck.spi.JobExecutionStatusWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionTimeline;
 import com.ibm.jbatch.tck.spi.JobExecutionWaiter;
 import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
 import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
+import com.ibm.jbatch.tck.spi.RecordingJobExecutionWaiter;
 
 public class JobOperatorBridge {
 
@@ -51,12 +71,24 @@ public class JobOperatorBridge {
 
 	private final static Logger logger = Logger.getLogger(JobOperatorBridge.class.getName());
 	
-	private JobOperator jobOp = BatchRuntime.getJobOperator();
-	private JobExecutionWaiterFactory waiterFactory = ServiceGateway.getJobExecutionWaiterFactoryService();
+	private final JobOperator jobOp = BatchRuntime.getJobOperator();
+	private final JobExecutionWaiterFactory waiterFactory = ServiceGateway.getJobExecutionWaiterFactoryService();
 
-	private int sleepTime = Integer.parseInt(System.getProperty("tck.execution.waiter.timeout", DEFAULT_JOB_OPERATOR_SLEEP_TIME));
+	private final int sleepTime = Integer.parseInt(System.getProperty("tck.execution.waiter.timeout", DEFAULT_JOB_OPERATOR_SLEEP_TIME));
 	private final String TIMEOUT_MSG = "Test failure due to timeout exception.  Either the timeout should be increased and there is nothing else wrong, " 
 	                 + "or perhaps the runtime implementation is handing and/or unresponsive<p>";
+
+	// Only used to wait asynchronously with waiters which can only block
+	private static final ExecutorService blockingWaiterExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+		private final AtomicInteger count = new AtomicInteger();
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "TCK blocking waiter " + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
 	public JobOperatorBridge() {
 		super();        
 	}
@@ -80,7 +112,7 @@ public class JobOperatorBridge {
 	public TCKJobExecutionWrapper restartJobAndWaitForResult(long oldExecutionId, Properties restartJobParameters) throws NoSuchJobExecutionException, NoSuchJobException, JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException, JobSecurityException, JobExecutionTimeoutException {    	
 
 		JobExecution terminatedJobExecution = null;
-		long newExecutionId = jobOp.restart(oldExecutionId, restartJobParameters);
+		long newExecutionId = restart(oldExecutionId, restartJobParameters);
 
 		JobExecutionWaiter waiter = waiterFactory.createWaiter(newExecutionId, jobOp, sleepTime);
 
@@ -92,11 +124,11 @@ public class JobOperatorBridge {
 			throw e;
 		}									
 
-		return new TCKJobExecutionWrapper(terminatedJobExecution, jobOp);
+		return wrap(terminatedJobExecution, waiter);
 	}
 	
 	public TCKJobExecutionWrapper restartJobWithoutWaitingForResult(long oldExecutionId, Properties jobParameters) throws NoSuchJobExecutionException, NoSuchJobException, JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException, JobSecurityException, JobExecutionTimeoutException {
-		Long execID = (Long)jobOp.restart(oldExecutionId, jobParameters);
+		Long execID = (Long)restart(oldExecutionId, jobParameters);
 		JobExecution jobExecution = jobOp.getJobExecution(execID);
 		return new TCKJobExecutionWrapper(jobExecution, jobOp);
 	}
@@ -110,7 +142,7 @@ public class JobOperatorBridge {
 	}
 
 	public TCKJobExecutionWrapper startJobWithoutWaitingForResult(String jobName, Properties jobParameters) throws JobStartException, NoSuchJobExecutionException, JobSecurityException {
-		Long execID = (Long)jobOp.start(jobName, jobParameters);
+		Long execID = (Long)start(jobName, jobParameters);
 		JobExecution jobExecution = jobOp.getJobExecution(execID);
 		return new TCKJobExecutionWrapper(jobExecution, jobOp);
 	}
@@ -138,13 +170,13 @@ public class JobOperatorBridge {
 			throw e;
 		}									
 
-		return new TCKJobExecutionWrapper(terminatedJobExecution, jobOp);
+		return wrap(terminatedJobExecution, waiter);
 	}
 
 
 	public TCKJobExecutionWrapper startJobAndWaitForResult(String jobName, Properties jobParameters) throws JobStartException, NoSuchJobExecutionException, JobSecurityException, JobExecutionTimeoutException{
 		JobExecution terminatedJobExecution = null;
-		long executionId = jobOp.start(jobName, jobParameters);
+		long executionId = start(jobName, jobParameters);
 
 		JobExecutionWaiter waiter = waiterFactory.createWaiter(executionId, jobOp, sleepTime);
 
@@ -156,10 +188,296 @@ public class JobOperatorBridge {
 			throw e;
 		}									
 
-		return new TCKJobExecutionWrapper(terminatedJobExecution, jobOp);
+		return wrap(terminatedJobExecution, waiter);
+	}
+
+
+	/**
+	 * Starts the job and returns without waiting.  
+	 * 
+	 * @return Future completed with a TCKJobExecutionWrapper once the execution reaches a "final" state.
+	 */
+	public JobExecutionFuture startJobAsync(String jobName, Properties jobParameters) throws JobStartException, JobSecurityException {
+		long executionId = start(jobName, jobParameters);
+		return awaitTerminationAsync(executionId);
+	}
+
+	/**
+	 * Restarts the job and returns without waiting.  
+	 * 
+	 * @return Future completed with a TCKJobExecutionWrapper once the new execution reaches a "final" state.
+	 */
+	public JobExecutionFuture restartJobAsync(long oldExecutionId, Properties restartJobParameters) throws NoSuchJobExecutionException, NoSuchJobException, JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException, JobSecurityException {
+		long newExecutionId = restart(oldExecutionId, restartJobParameters);
+		return awaitTerminationAsync(newExecutionId);
+	}
+
+	private JobExecutionFuture awaitTerminationAsync(long executionId) {
+		final JobExecutionWaiter waiter = waiterFactory.createWaiter(executionId, jobOp, sleepTime);
+		final TestWallTime wallTime = TestWallTime.current();
+		AsyncJobExecutionWaiter asyncWaiter;
+		if (waiter instanceof AsyncJobExecutionWaiter) {
+			asyncWaiter = (AsyncJobExecutionWaiter) waiter;
+		} else {
+			asyncWaiter = new AsyncJobExecutionWaiterAdapter(waiter, blockingWaiterExecutor);
+		}
+
+		final DefaultJobExecutionFuture wrapped = new DefaultJobExecutionFuture();
+		asyncWaiter.awaitTerminationAsync().addCallback(new JobExecutionCallback() {
+			@Override
+			public void terminated(JobExecution jobExecution) {
+				wrapped.complete(wrap(jobExecution, waiter, wallTime));
+			}
+			@Override
+			public void failed(Throwable failure) {
+				if (failure instanceof JobExecutionTimeoutException) {
+					logger.severe(TIMEOUT_MSG);
+				}
+				wrapped.fail(failure);
+			}
+		});
+		return wrapped;
+	}
+
+	/**
+	 * Starts one execution of the job per set of job parameters, keeping at most maxInFlight of them 
+	 * running at once, then waits for all of them to reach a "final" state.
+	 * 
+	 * @return The executions, in the order of their job parameters, along with throughput and latency statistics.
+	 */
+	public BulkExecutionResult startJobsAndWaitForAll(final String jobName, final List<Properties> jobParameters, int maxInFlight) throws JobStartException, JobSecurityException, JobExecutionTimeoutException {
+		return submitAndWaitForAll(jobParameters.size(), maxInFlight, new Submitter() {
+			@Override
+			public long submit(int index) {
+				return start(jobName, jobParameters.get(index));
+			}
+		});
+	}
+
+	/**
+	 * Restarts each of the executions with the same restart parameters, keeping at most maxInFlight of 
+	 * the new executions running at once, then waits for all of them to reach a "final" state.
+	 * 
+	 * @return The new executions, in the order of the executions they restart, along with throughput and latency statistics.
+	 */
+	public BulkExecutionResult restartJobsAndWaitForAll(final List<Long> oldExecutionIds, final Properties restartJobParameters, int maxInFlight) throws NoSuchJobExecutionException, NoSuchJobException, JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException, JobSecurityException, JobExecutionTimeoutException {
+		return submitAndWaitForAll(oldExecutionIds.size(), maxInFlight, new Submitter() {
+			@Override
+			public long submit(int index) {
+				return restart(oldExecutionIds.get(index), restartJobParameters);
+			}
+		});
+	}
+
+	private interface Submitter {
+		long submit(int index);
+	}
+
+	private BulkExecutionResult submitAndWaitForAll(int count, int maxInFlight, Submitter submitter) throws JobExecutionTimeoutException {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("maxInFlight must be at least 1, not: " + maxInFlight);
+		}
+		final Semaphore inFlight = new Semaphore(maxInFlight);
+		final TCKJobExecutionWrapper[] executions = new TCKJobExecutionWrapper[count];
+		final long[] latencyNanos = new long[count];
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		long startTime = System.nanoTime();
+		for (int i = 0; i < count && failure.get() == null; i++) {
+			acquire(inFlight, 1);
+			final int index = i;
+			final long submitTime = System.nanoTime();
+			long executionId;
+			try {
+				executionId = submitter.submit(index);
+			} catch (RuntimeException e) {
+				inFlight.release();
+				// Don't leave executions running behind the caller's back
+				acquire(inFlight, maxInFlight);
+				throw e;
+			}
+			awaitTerminationAsync(executionId).addCallback(new JobExecutionCallback() {
+				@Override
+				public void terminated(JobExecution jobExecution) {
+					latencyNanos[index] = System.nanoTime() - submitTime;
+					executions[index] = (TCKJobExecutionWrapper) jobExecution;
+					inFlight.release();
+				}
+				@Override
+				public void failed(Throwable t) {
+					failure.compareAndSet(null, t);
+					inFlight.release();
+				}
+			});
+		}
+		// All permits are back once the last execution in flight terminated
+		acquire(inFlight, maxInFlight);
+		long elapsedNanos = System.nanoTime() - startTime;
+
+		Throwable t = failure.get();
+		if (t instanceof JobExecutionTimeoutException) {
+			throw (JobExecutionTimeoutException) t;
+		} else if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		} else if (t != null) {
+			throw new IllegalStateException("Failed waiting for job executions", t);
+		}
+
+		BulkExecutionResult result = new BulkExecutionResult(executions, latencyNanos, elapsedNanos);
+		logger.fine("Ran " + count + " executions with maxInFlight = " + maxInFlight + ": " + result);
+		Reporter.log("Ran " + count + " executions with maxInFlight = " + maxInFlight + ": " + result + "<p>");
+		return result;
+	}
+
+	private void acquire(Semaphore semaphore, int permits) {
+		try {
+			semaphore.acquire(permits);
+		} catch (InterruptedException e) {
+			throw new IllegalStateException("Aborting on interrupt", e);
+		}
+	}
+
+	/**
+	 * Waits until the batch status of the execution is one of the given batch statuses, e.g. until the 
+	 * job is STARTED before stopping it.  Also returns once the execution reached a final batch status,
+	 * so the caller should check the batch status of the result.
+	 */
+	public TCKJobExecutionWrapper awaitStatus(long executionId, BatchStatus batchStatus, BatchStatus... moreBatchStatuses) throws NoSuchJobExecutionException, JobSecurityException, JobExecutionTimeoutException {
+		Set<BatchStatus> statuses = EnumSet.of(batchStatus, moreBatchStatuses);
+		JobExecution jobExecution = null;
+		JobExecutionWaiter waiter = waiterFactory.createWaiter(executionId, jobOp, sleepTime);
+
+		try {
+			if (waiter instanceof JobExecutionStatusWaiter) {
+				jobExecution = ((JobExecutionStatusWaiter) waiter).awaitStatus(statuses);
+			} else {
+				// A waiter not implementing the optional extension, poll here instead
+				jobExecution = pollForStatus(executionId, statuses);
+			}
+		} catch (JobExecutionTimeoutException e) {
+			logger.severe(TIMEOUT_MSG);
+			Reporter.log(TIMEOUT_MSG);
+			throw e;
+		}
+
+		return wrap(jobExecution, waiter);
+	}
+
+	private TCKJobExecutionWrapper wrap(JobExecution jobExecution, JobExecutionWaiter waiter) {
+		return wrap(jobExecution, waiter, TestWallTime.current());
+	}
+
+	/**
+	 * @param wallTime The wall time of the test that submitted the execution, or null, since 
+	 *                 async waiters call back on a thread of their own.
+	 */
+	private TCKJobExecutionWrapper wrap(JobExecution jobExecution, JobExecutionWaiter waiter, TestWallTime wallTime) {
+		if (wallTime != null) {
+			wallTime.addObservation(jobExecution, System.currentTimeMillis());
+		}
+		if (isFinal(jobExecution.getBatchStatus())) {
+			// Nobody awaits the signals of an ended execution anymore
+			SignalBulletinBoard.clear(jobExecution.getExecutionId());
+		}
+		if (waiter instanceof RecordingJobExecutionWaiter) {
+			JobExecutionTimeline timeline = ((RecordingJobExecutionWaiter) waiter).getTimeline();
+			logger.fine("Observed: " + timeline);
+			Reporter.log("Observed: " + timeline + "<p>");
+			return new TCKJobExecutionWrapper(jobExecution, jobOp, timeline);
+		}
+		return new TCKJobExecutionWrapper(jobExecution, jobOp);
+	}
+
+	/**
+	 * Waits until the artifacts of the execution have posted the signal to the
+	 * {@link SignalBulletinBoard} at least <code>count</code> times.  The time blocked
+	 * counts as sleep in the wall time report, like the time between status polls.
+	 *
+	 * @return true if the signal count was reached, false if the timeout elapsed first
+	 */
+	public boolean awaitSignal(long executionId, String stepName, String signalName, int count, long timeoutMillis) throws InterruptedException {
+		long sleepStart = System.nanoTime();
+		try {
+			return SignalBulletinBoard.await(executionId, stepName, signalName, count, timeoutMillis);
+		} finally {
+			TestWallTime.recordSleep(sleepStart);
+		}
+	}
+
+	private JobExecution pollForStatus(long executionId, Set<BatchStatus> batchStatuses) throws JobExecutionTimeoutException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sleepTime);
+		PollingSchedule.Backoff backoff = PollingSchedule.fromSystemProperties().start();
+		while (true) {
+			JobExecution jobExecution = jobOp.getJobExecution(executionId);
+			BatchStatus bs = jobExecution.getBatchStatus();
+			if (batchStatuses.contains(bs) || isFinal(bs)) {
+				return jobExecution;
+			}
+			sleepUntilNextPoll(backoff, deadline, "Timed out waiting for job execution: " + executionId + " to reach one of batch statuses: " + batchStatuses);
+		}
 	}
 
+	/**
+	 * Waits until the batch status of the named step of the execution is one of the given batch statuses, 
+	 * e.g. until the step is STARTED before stopping the job.
+	 * 
+	 * @throws IllegalStateException if the job execution reaches a final batch status first.
+	 */
+	public StepExecution awaitStepStatus(long executionId, String stepName, BatchStatus batchStatus, BatchStatus... moreBatchStatuses) throws NoSuchJobExecutionException, JobSecurityException, JobExecutionTimeoutException {
+		Set<BatchStatus> statuses = EnumSet.of(batchStatus, moreBatchStatuses);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sleepTime);
+		PollingSchedule.Backoff backoff = PollingSchedule.fromSystemProperties().start();
+		while (true) {
+			for (StepExecution stepExecution : jobOp.getStepExecutions(executionId)) {
+				if (stepName.equals(stepExecution.getStepName()) && statuses.contains(stepExecution.getBatchStatus())) {
+					return stepExecution;
+				}
+			}
+			BatchStatus jobStatus = jobOp.getJobExecution(executionId).getBatchStatus();
+			if (isFinal(jobStatus)) {
+				throw new IllegalStateException("Job execution: " + executionId + " ended with batch status: " + jobStatus 
+						+ " before step: " + stepName + " reached one of batch statuses: " + statuses);
+			}
+			sleepUntilNextPoll(backoff, deadline, "Timed out waiting for step: " + stepName + " of job execution: " + executionId + " to reach one of batch statuses: " + statuses);
+		}
+	}
+
+	private void sleepUntilNextPoll(PollingSchedule.Backoff backoff, long deadline, String timeoutMsg) throws JobExecutionTimeoutException {
+		long remaining = deadline - System.nanoTime();
+		if (remaining <= 0) {
+			logger.severe(TIMEOUT_MSG);
+			Reporter.log(TIMEOUT_MSG);
+			throw new JobExecutionTimeoutException(timeoutMsg);
+		}
+		long sleepStart = System.nanoTime();
+		try {
+			TimeUnit.NANOSECONDS.sleep(Math.min(remaining, backoff.nextDelayNanos()));
+		} catch (InterruptedException e) {
+			throw new IllegalStateException("Aborting on interrupt", e);
+		} finally {
+			TestWallTime.recordSleep(sleepStart);
+		}
+	}
+
+	private long start(String jobName, Properties jobParameters) {
+		TestWallTime.recordJobName(jobName);
+		long submitStart = System.nanoTime();
+		long executionId = jobOp.start(jobName, jobParameters);
+		TestWallTime.recordSubmit(submitStart);
+		return executionId;
+	}
+
+	private long restart(long oldExecutionId, Properties restartJobParameters) {
+		long submitStart = System.nanoTime();
+		long executionId = jobOp.restart(oldExecutionId, restartJobParameters);
+		TestWallTime.recordSubmit(submitStart);
+		return executionId;
+	}
 
+	private static boolean isFinal(BatchStatus batchStatus) {
+		return batchStatus == BatchStatus.STOPPED || batchStatus == BatchStatus.FAILED 
+				|| batchStatus == BatchStatus.COMPLETED || batchStatus == BatchStatus.ABANDONED;
+	}
 
 	public Properties getParameters(long executionId) throws NoSuchJobInstanceException, JobSecurityException, NoSuchJobExecutionException{
 		return jobOp.getParameters(executionId);
@@ -181,6 +499,13 @@ public class JobOperatorBridge {
 		return jobOp.getStepExecutions(executionId);
 	}
 
+	/**
+	 * Reads the execution, its instance and its steps in one pass, for tests checking many of their attributes.
+	 */
+	public ExecutionSnapshot getExecutionSnapshot(long executionId) throws NoSuchJobExecutionException, JobSecurityException {
+		return ExecutionSnapshot.load(jobOp, executionId);
+	}
+
 	public void startJobWithoutWaitingForResult(String jobName) throws JobStartException, NoSuchJobExecutionException, JobSecurityException {
 		startJobWithoutWaitingForResult(jobName, null);
 	}
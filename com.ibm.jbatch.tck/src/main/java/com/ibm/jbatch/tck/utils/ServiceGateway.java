@@ -18,24 +18,53 @@
 */
 package com.ibm.jbatch.tck.utils;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ServiceLoader;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.testng.Reporter;
 
+import com.ibm.jbatch.tck.notifying.TCKNotifyingExecutionWaiterFactory;
+import com.ibm.jbatch.tck.polling.TCKPollingExecutionWaiterFactory;
+import com.ibm.jbatch.tck.spi.DefaultJobExecutionBulkQuery;
+import com.ibm.jbatch.tck.spi.JobExecutionBulkQuery;
+import com.ibm.jbatch.tck.spi.JobExecutionStatusNotifier;
 import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
+import com.ibm.jbatch.tck.spi.RuntimeResetHook;
 
 public class ServiceGateway {
     private final static Logger logger = Logger.getLogger(ServiceGateway.class.getName());
 
+    public static final String WAITER_FACTORY_PROPERTY = "tck.execution.waiter.factory";
+
+    /**
+     * Uses the JobExecutionWaiterFactory class named by the "tck.execution.waiter.factory" system property, if set.
+     * Otherwise uses the first JobExecutionWaiterFactory registered via META-INF/services other than the TCK's own,
+     * polling one.  Only if there is none, prefers waiting on notifications, if the runtime provides a
+     * JobExecutionStatusNotifier, and otherwise falls back to the TCK's polling JobExecutionWaiterFactory.
+     */
     public static JobExecutionWaiterFactory getJobExecutionWaiterFactoryService() { 
+        String factoryClassName = System.getProperty(WAITER_FACTORY_PROPERTY);
+        if (factoryClassName != null && !factoryClassName.trim().isEmpty()) {
+            return newJobExecutionWaiterFactory(factoryClassName.trim());
+        }
+
     	JobExecutionWaiterFactory services = null;
+    	JobExecutionWaiterFactory defaultServices = null;
         ServiceLoader<JobExecutionWaiterFactory> loader = 
             ServiceLoader.load(JobExecutionWaiterFactory.class);
 
         for (JobExecutionWaiterFactory provider : loader) {
             if (provider != null) {
+                if (provider instanceof TCKPollingExecutionWaiterFactory) {
+                    // Only the fallback, as it ships with the TCK rather than being configured
+                    if (defaultServices == null) {
+                        defaultServices = provider;
+                    }
+                    continue;
+                }
                 if (logger.isLoggable(Level.FINE)) {
                     logger.fine("Loaded JobExecutionWaiterFactory with className = " + provider.getClass().getCanonicalName());
                 }
@@ -45,10 +74,89 @@ public class ServiceGateway {
                 break;
             }
         }
+        if (services != null) {
+            return services;
+        }
+
+        JobExecutionStatusNotifier notifier = getJobExecutionStatusNotifierService();
+        if (notifier != null) {
+            return new TCKNotifyingExecutionWaiterFactory(notifier);
+        }
 
-        if (services == null) {
+        if (defaultServices == null) {
             throw new IllegalStateException("Service loader didn't find resource found on classpath for service: META-INF/services/com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory");
         }
-        return services;
+        Reporter.log("Loaded JobExecutionWaiterFactory with className = " + defaultServices.getClass().getCanonicalName() + "<p>");
+        return defaultServices;
     } 
+
+    private static JobExecutionWaiterFactory newJobExecutionWaiterFactory(String className) {
+        try {
+            Class<?> clazz = Class.forName(className);
+            JobExecutionWaiterFactory factory = (JobExecutionWaiterFactory) clazz.newInstance();
+            Reporter.log("Loaded JobExecutionWaiterFactory with className = " + className + " from system property: " + WAITER_FACTORY_PROPERTY + "<p>");
+            return factory;
+        } catch (Exception e) {
+            throw new IllegalStateException("Couldn't instantiate JobExecutionWaiterFactory with className = " + className + ", set via system property: " + WAITER_FACTORY_PROPERTY, e);
+        }
+    }
+
+    /**
+     * @return The first JobExecutionStatusNotifier found, or null if the runtime doesn't provide one.
+     */
+    public static JobExecutionStatusNotifier getJobExecutionStatusNotifierService() {
+        ServiceLoader<JobExecutionStatusNotifier> loader = 
+            ServiceLoader.load(JobExecutionStatusNotifier.class);
+
+        for (JobExecutionStatusNotifier provider : loader) {
+            if (provider != null) {
+                if (logger.isLoggable(Level.FINE)) {
+                    logger.fine("Loaded JobExecutionStatusNotifier with className = " + provider.getClass().getCanonicalName());
+                }
+                Reporter.log("Loaded JobExecutionStatusNotifier with className = " + provider.getClass().getCanonicalName() + "<p>");
+                // Use first one
+                return provider;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The first JobExecutionBulkQuery found, or else one reading each execution in turn.
+     */
+    public static JobExecutionBulkQuery getJobExecutionBulkQueryService() {
+        ServiceLoader<JobExecutionBulkQuery> loader = 
+            ServiceLoader.load(JobExecutionBulkQuery.class);
+
+        for (JobExecutionBulkQuery provider : loader) {
+            if (provider != null) {
+                if (logger.isLoggable(Level.FINE)) {
+                    logger.fine("Loaded JobExecutionBulkQuery with className = " + provider.getClass().getCanonicalName());
+                }
+                Reporter.log("Loaded JobExecutionBulkQuery with className = " + provider.getClass().getCanonicalName() + "<p>");
+                // Use first one
+                return provider;
+            }
+        }
+        return new DefaultJobExecutionBulkQuery();
+    }
+
+    /**
+     * @return All the RuntimeResetHooks found, as each may reset a different part of the runtime.
+     */
+    public static List<RuntimeResetHook> getRuntimeResetHookServices() {
+        List<RuntimeResetHook> hooks = new ArrayList<RuntimeResetHook>();
+        ServiceLoader<RuntimeResetHook> loader = 
+            ServiceLoader.load(RuntimeResetHook.class);
+
+        for (RuntimeResetHook provider : loader) {
+            if (provider != null) {
+                if (logger.isLoggable(Level.FINE)) {
+                    logger.fine("Loaded RuntimeResetHook with className = " + provider.getClass().getCanonicalName());
+                }
+                hooks.add(provider);
+            }
+        }
+        return hooks;
+    }
 }
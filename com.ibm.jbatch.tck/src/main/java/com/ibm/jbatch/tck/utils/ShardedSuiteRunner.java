@@ -0,0 +1,502 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.testng.TestNG;
+import org.testng.xml.Parser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlPackage;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Runs the test classes of a TestNG suite in N shards, each in a JVM of its own with its own
+ * Derby job repository (derby.system.home is the shard directory), then merges the
+ * testng-results.xml of the shards into one.
+ *
+ * The classes are assigned to shards longest first, each to the shard with the least work so
+ * far, using the durations of their test methods in the {@link TestHistory} kept in
+ * tck-test-index.json, which every sharded run updates with the tck-wall-time.json reports
+ * (see {@link WallTimeReporter}) of its shards, and in any -history reports, the most recently
+ * modified of these winning.  Classes without history count as the mean known duration.
+ * The plan only depends on the suite and the history, so runs with the same history shard
+ * identically.
+ * The directories of the shards of an earlier run with more shards are deleted.
+ *
+ * With -changed, only the test methods affected by the listed changes run, among those the suite
+ * runs, as selected by {@link AffectedTestIndex} from the same history.
+ *
+ * Usage: ShardedSuiteRunner -suite &lt;suite.xml&gt; [-shards &lt;n&gt;] [-dir &lt;output dir&gt;]
+ *        [-properties &lt;system properties file&gt;] [-history &lt;tck-wall-time.json&gt;]... [-jvmarg &lt;arg&gt;]...
+ *        [-changed &lt;JSL element, artifact, artifact class or job&gt;,...]
+ */
+public class ShardedSuiteRunner {
+
+	private final static String sourceClass = ShardedSuiteRunner.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	public static final String RESULTS_FILE = "testng-results.xml";
+
+	private File suiteFile;
+	private int shardCount = Runtime.getRuntime().availableProcessors();
+	private File dir = new File("shards");
+	private File propertiesFile;
+	private final List<File> historyFiles = new ArrayList<File>();
+	private final List<String> jvmArgs = new ArrayList<String>();
+	private final List<String> changes = new ArrayList<String>();
+
+	public static void main(String[] args) throws Exception {
+		ShardedSuiteRunner runner = new ShardedSuiteRunner();
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (i == args.length - 1) {
+				throw new IllegalArgumentException("Missing value for: " + arg);
+			}
+			String value = args[++i];
+			if ("-suite".equals(arg)) {
+				runner.suiteFile = new File(value);
+			} else if ("-shards".equals(arg)) {
+				runner.shardCount = Integer.parseInt(value);
+			} else if ("-dir".equals(arg)) {
+				runner.dir = new File(value);
+			} else if ("-properties".equals(arg)) {
+				runner.propertiesFile = new File(value);
+			} else if ("-history".equals(arg)) {
+				runner.historyFiles.add(new File(value));
+			} else if ("-jvmarg".equals(arg)) {
+				runner.jvmArgs.add(value);
+			} else if ("-changed".equals(arg)) {
+				for (String change : value.split(",")) {
+					if (change.trim().length() > 0) {
+						runner.changes.add(change.trim());
+					}
+				}
+			} else {
+				throw new IllegalArgumentException("Unknown argument: " + arg);
+			}
+		}
+		if (runner.suiteFile == null) {
+			throw new IllegalArgumentException("Missing -suite <suite.xml>");
+		}
+		if (runner.shardCount < 1) {
+			throw new IllegalArgumentException("-shards must be at least 1, not: " + runner.shardCount);
+		}
+		System.exit(runner.run());
+	}
+
+	/**
+	 * @return 0 if all the tests of all the shards passed, 1 otherwise.
+	 */
+	public int run() throws Exception {
+		XmlSuite suite = new Parser(suiteFile.getPath()).parseToList().get(0);
+		Map<String, XmlClass> classes = getClasses(suite);
+
+		File indexFile = new File(dir, TestHistory.INDEX_FILE);
+		List<File> historySources = new ArrayList<File>(historyFiles);
+		historySources.add(indexFile);
+		TestHistory history = TestHistory.load(historySources);
+
+		if (!changes.isEmpty()) {
+			selectAffected(classes, changes, new AffectedTestIndex(history, ShardedSuiteRunner.class.getClassLoader()));
+		}
+		if (classes.isEmpty()) {
+			logger.info("No tests affected by: " + changes);
+			return 0;
+		}
+
+		List<List<XmlClass>> shards = plan(classes, history.getDurations(), shardCount);
+		deleteShardsFrom(shards.size());
+
+		List<Process> processes = new ArrayList<Process>();
+		for (int i = 0; i < shards.size(); i++) {
+			File shardDir = getShardDir(i);
+			delete(shardDir);
+			getOutputDir(i).mkdirs();
+			File shardSuite = new File(shardDir, "suite.xml");
+			write(shardSuite, toShardSuite(suite, i, shards.get(i)).toXml());
+			processes.add(launch(i, shardSuite));
+		}
+
+		for (int i = 0; i < processes.size(); i++) {
+			int exitValue = processes.get(i).waitFor();
+			logger.info("Shard " + i + " exited with: " + exitValue);
+		}
+
+		for (int i = 0; i < shards.size(); i++) {
+			File report = new File(getOutputDir(i), WallTimeReporter.JSON_REPORT);
+			if (report.isFile()) {
+				history.merge(report);
+			}
+		}
+		history.save(indexFile);
+
+		return mergeResults(shards.size(), new File(dir, RESULTS_FILE));
+	}
+
+	/**
+	 * Deletes the directories of the shards numbered from <code>count</code> on, left over by an earlier run.
+	 */
+	private void deleteShardsFrom(int count) {
+		File[] shardDirs = dir.listFiles();
+		if (shardDirs == null) {
+			return;
+		}
+		for (File shardDir : shardDirs) {
+			String name = shardDir.getName();
+			if (name.matches("shard-\\d+") && Integer.parseInt(name.substring("shard-".length())) >= count) {
+				logger.info("Deleting the leftover: " + shardDir);
+				delete(shardDir);
+			}
+		}
+	}
+
+	/**
+	 * The classes of all the tests of the suite, in suite order, with their method includes and excludes.
+	 */
+	static Map<String, XmlClass> getClasses(XmlSuite suite) {
+		Map<String, XmlClass> classes = new LinkedHashMap<String, XmlClass>();
+		for (XmlTest test : suite.getTests()) {
+			for (XmlClass xmlClass : test.getXmlClasses()) {
+				classes.put(xmlClass.getName(), xmlClass);
+			}
+			for (XmlPackage xmlPackage : test.getXmlPackages()) {
+				for (XmlClass xmlClass : xmlPackage.getXmlClasses()) {
+					if (!xmlClass.getName().contains("$") && !classes.containsKey(xmlClass.getName())) {
+						classes.put(xmlClass.getName(), xmlClass);
+					}
+				}
+			}
+		}
+		return classes;
+	}
+
+	/**
+	 * Narrows down the classes to the methods affected by the changes.
+	 */
+	private static void selectAffected(Map<String, XmlClass> classes, List<String> changes, AffectedTestIndex index) throws Exception {
+		if (index.isEmpty()) {
+			logger.warning("No test history, running all the tests instead of those affected by: " + changes);
+			return;
+		}
+		int selected = 0;
+		for (Iterator<XmlClass> i = classes.values().iterator(); i.hasNext();) {
+			XmlClass xmlClass = i.next();
+			Set<String> methods = index.getAffectedMethods(xmlClass.getName(), changes);
+			// Including a method would run it even if the suite excludes it
+			for (Iterator<String> m = methods.iterator(); m.hasNext();) {
+				if (!isRunBySuite(xmlClass, m.next())) {
+					m.remove();
+				}
+			}
+			if (methods.isEmpty()) {
+				i.remove();
+				continue;
+			}
+			List<XmlInclude> includes = new ArrayList<XmlInclude>();
+			for (String method : methods) {
+				includes.add(new XmlInclude(method));
+			}
+			xmlClass.setIncludedMethods(includes);
+			selected += methods.size();
+		}
+		logger.info("Selected " + selected + " test methods of " + classes.size() + " classes affected by: " + changes);
+	}
+
+	private static boolean isRunBySuite(XmlClass xmlClass, String method) {
+		for (String exclude : xmlClass.getExcludedMethods()) {
+			if (method.matches(exclude)) {
+				return false;
+			}
+		}
+		List<XmlInclude> includes = xmlClass.getIncludedMethods();
+		if (includes.isEmpty()) {
+			return true;
+		}
+		for (XmlInclude include : includes) {
+			if (method.matches(include.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The duration of the class, or of its included methods when only some of them run, 
+	 * with the mean known class or method duration standing in for missing ones.
+	 */
+	private static long getWeight(XmlClass xmlClass, Map<String, Long> durations, long unknownClass, long unknownMethod) {
+		if (xmlClass.getExcludedMethods().contains(".*")) {
+			return 0;
+		}
+		List<XmlInclude> includes = xmlClass.getIncludedMethods();
+		if (includes.isEmpty()) {
+			Long duration = durations.get(xmlClass.getName());
+			return duration != null ? duration : unknownClass;
+		}
+		long weight = 0;
+		for (XmlInclude include : includes) {
+			Long duration = durations.get(xmlClass.getName() + "#" + include.getName());
+			weight += duration != null ? duration : unknownMethod;
+		}
+		return weight;
+	}
+
+	static List<List<XmlClass>> plan(Map<String, XmlClass> classes, final Map<String, Long> durations, int shardCount) {
+		long knownClasses = 0, knownMethods = 0;
+		int classCount = 0, methodCount = 0;
+		for (Map.Entry<String, Long> duration : durations.entrySet()) {
+			if (duration.getKey().contains("#")) {
+				knownMethods += duration.getValue();
+				methodCount++;
+			} else {
+				knownClasses += duration.getValue();
+				classCount++;
+			}
+		}
+		long unknownClass = classCount == 0 ? 1 : Math.max(1, knownClasses / classCount);
+		long unknownMethod = methodCount == 0 ? 1 : Math.max(1, knownMethods / methodCount);
+
+		final Map<String, Long> weights = new HashMap<String, Long>();
+		for (XmlClass xmlClass : classes.values()) {
+			weights.put(xmlClass.getName(), getWeight(xmlClass, durations, unknownClass, unknownMethod));
+		}
+
+		List<String> longestFirst = new ArrayList<String>(classes.keySet());
+		Collections.sort(longestFirst, new Comparator<String>() {
+			@Override
+			public int compare(String c1, String c2) {
+				long w1 = weights.get(c1);
+				long w2 = weights.get(c2);
+				return w1 != w2 ? (w1 < w2 ? 1 : -1) : c1.compareTo(c2);
+			}
+		});
+
+		int count = Math.max(1, Math.min(shardCount, classes.size()));
+		long[] loads = new long[count];
+		List<List<String>> assigned = new ArrayList<List<String>>();
+		for (int i = 0; i < count; i++) {
+			assigned.add(new ArrayList<String>());
+		}
+		for (String className : longestFirst) {
+			int lightest = 0;
+			for (int i = 1; i < count; i++) {
+				if (loads[i] < loads[lightest]) {
+					lightest = i;
+				}
+			}
+			loads[lightest] += weights.get(className);
+			assigned.get(lightest).add(className);
+		}
+
+		// Within a shard, keep the order of the suite
+		List<List<XmlClass>> shards = new ArrayList<List<XmlClass>>();
+		for (int i = 0; i < count; i++) {
+			List<XmlClass> shard = new ArrayList<XmlClass>();
+			for (XmlClass xmlClass : classes.values()) {
+				if (assigned.get(i).contains(xmlClass.getName())) {
+					shard.add(xmlClass);
+				}
+			}
+			logger.info("Shard " + i + " (expected " + loads[i] + " ms): " + assigned.get(i));
+			shards.add(shard);
+		}
+		return shards;
+	}
+
+	private static XmlSuite toShardSuite(XmlSuite suite, int index, List<XmlClass> classes) {
+		XmlSuite shardSuite = new XmlSuite();
+		shardSuite.setName(suite.getName() + " shard " + index);
+		shardSuite.setVerbose(suite.getVerbose());
+		shardSuite.setParameters(suite.getParameters());
+		XmlTest test = new XmlTest(shardSuite);
+		test.setName(suite.getName() + " shard " + index);
+		List<XmlClass> shardClasses = new ArrayList<XmlClass>();
+		for (XmlClass xmlClass : classes) {
+			shardClasses.add((XmlClass) xmlClass.clone());
+		}
+		test.setXmlClasses(shardClasses);
+		return shardSuite;
+	}
+
+	private Process launch(int index, File shardSuite) throws IOException {
+		File shardDir = getShardDir(index);
+		List<String> command = new ArrayList<String>();
+		command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+		command.addAll(jvmArgs);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		if (propertiesFile != null) {
+			Properties props = new Properties();
+			InputStream in = new FileInputStream(propertiesFile);
+			try {
+				props.load(in);
+			} finally {
+				in.close();
+			}
+			for (String name : props.stringPropertyNames()) {
+				command.add("-D" + name + "=" + props.getProperty(name));
+			}
+		}
+		command.add("-Dderby.system.home=" + shardDir.getAbsolutePath());
+		command.add(TestNG.class.getName());
+		command.add("-d");
+		command.add(getOutputDir(index).getAbsolutePath());
+		command.add("-listener");
+		command.add(WallTimeReporter.class.getName());
+		command.add(shardSuite.getAbsolutePath());
+
+		ProcessBuilder builder = new ProcessBuilder(command);
+		builder.directory(shardDir);
+		builder.redirectErrorStream(true);
+		Process process = builder.start();
+		File log = new File(shardDir, "shard.log");
+		logger.info("Started shard " + index + ", logging to: " + log);
+		copyInBackground(process.getInputStream(), new FileOutputStream(log));
+		return process;
+	}
+
+	private static void copyInBackground(final InputStream in, final OutputStream out) {
+		Thread copier = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				byte[] buffer = new byte[8192];
+				try {
+					try {
+						int read;
+						while ((read = in.read(buffer)) != -1) {
+							out.write(buffer, 0, read);
+						}
+					} finally {
+						out.close();
+					}
+				} catch (IOException e) {
+					logger.warning("Lost shard output: " + e);
+				}
+			}
+		});
+		copier.setDaemon(true);
+		copier.start();
+	}
+
+	/**
+	 * Merges the suites of the shard results under one testng-results element, summing up the counts.
+	 */
+	private int mergeResults(int count, File mergedFile) throws Exception {
+		DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+		Document merged = builder.newDocument();
+		Element root = merged.createElement("testng-results");
+		merged.appendChild(root);
+		String[] counters = {"skipped", "failed", "total", "passed"};
+		long[] totals = new long[counters.length];
+		boolean missing = false;
+
+		for (int i = 0; i < count; i++) {
+			File results = new File(getOutputDir(i), RESULTS_FILE);
+			if (!results.isFile()) {
+				logger.severe("Shard " + i + " produced no " + RESULTS_FILE + ", see: " + new File(getShardDir(i), "shard.log"));
+				missing = true;
+				continue;
+			}
+			Element shardRoot = builder.parse(results).getDocumentElement();
+			for (int c = 0; c < counters.length; c++) {
+				String value = shardRoot.getAttribute(counters[c]);
+				if (value.length() > 0) {
+					totals[c] += Long.parseLong(value);
+				}
+			}
+			NodeList children = shardRoot.getChildNodes();
+			for (int n = 0; n < children.getLength(); n++) {
+				Node child = children.item(n);
+				if (child instanceof Element && "suite".equals(child.getNodeName())) {
+					root.appendChild(merged.importNode(child, true));
+				}
+			}
+		}
+		for (int c = 0; c < counters.length; c++) {
+			root.setAttribute(counters[c], String.valueOf(totals[c]));
+		}
+
+		Transformer transformer = TransformerFactory.newInstance().newTransformer();
+		transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+		transformer.transform(new DOMSource(merged), new StreamResult(mergedFile));
+
+		logger.info("Tests run: " + totals[2] + ", Failures: " + totals[1] + ", Skipped: " + totals[0] + " in " + count + " shards, merged into: " + mergedFile);
+		return (missing || totals[1] > 0) ? 1 : 0;
+	}
+
+	private File getShardDir(int index) {
+		return new File(dir, "shard-" + index);
+	}
+
+	private File getOutputDir(int index) {
+		return new File(getShardDir(index), "testng");
+	}
+
+	private static void write(File file, String content) throws IOException {
+		Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			out.write(content);
+		} finally {
+			out.close();
+		}
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
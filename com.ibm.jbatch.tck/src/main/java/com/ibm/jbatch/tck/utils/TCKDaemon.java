@@ -0,0 +1,412 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.batch.operations.JobExecutionNotRunningException;
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.NoSuchJobException;
+import javax.batch.runtime.BatchRuntime;
+
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.TestNG;
+import org.testng.reporters.XMLReporter;
+import org.testng.xml.Parser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.ibm.jbatch.tck.artifacts.common.SignalBulletinBoard;
+import com.ibm.jbatch.tck.spi.RuntimeResetHook;
+
+/**
+ * Keeps a JVM with the batch runtime, its CDI container and its job repository warmed up, and runs
+ * the TestNG test classes submitted to it over a local socket, so that a rerun doesn't pay for
+ * starting all of these again.
+ *
+ * Each connection sends one command line, answered with one line per test and a final "exit &lt;code&gt;" line:
+ * <ul>
+ *   <li>run [&lt;class&gt;[#&lt;method&gt;]]...: runs the given test classes or methods, or all the classes of -suite</li>
+ *   <li>reset: resets the state left behind by the previous runs</li>
+ *   <li>shutdown: resets, then stops the daemon</li>
+ * </ul>
+ * so that e.g. <code>echo run com.ibm.jbatch.tck.tests.jslxml.ChunkTests | nc localhost 7780</code>
+ * does, as does -send.
+ *
+ * After each run, once the client has its result, the daemon stops the executions still running, clears
+ * the {@link SignalBulletinBoard} and calls the {@link RuntimeResetHook}s of the runtime.  Before each run,
+ * it reloads the -properties file into the system properties, so e.g. tck.time.scale can change from one
+ * run to the next.  The classes of the runtime
+ * and of the TCK are only loaded once though, so changing them means restarting the daemon.
+ *
+ * Usage: TCKDaemon [-port &lt;port&gt;] [-suite &lt;suite.xml&gt;] [-dir &lt;output dir&gt;]
+ *        [-properties &lt;system properties file&gt;] [-warmup &lt;job name, or "" for none&gt;]
+ *    or: TCKDaemon [-port &lt;port&gt;] -send &lt;command&gt;...
+ */
+public class TCKDaemon {
+
+	private final static String sourceClass = TCKDaemon.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	public static final int DEFAULT_PORT = 7780;
+	public static final String DEFAULT_WARMUP_JOB = "job_batchlet_1step";
+
+	private static final String EXIT = "exit ";
+	private static final long STOP_TIMEOUT_MILLIS = 60000;
+
+	private int port = DEFAULT_PORT;
+	private File suiteFile;
+	private File dir = new File("daemon");
+	private File propertiesFile;
+	private String warmupJob = DEFAULT_WARMUP_JOB;
+	private JobOperator jobOperator;
+	private int runCount = 0;
+
+	public static void main(String[] args) throws Exception {
+		TCKDaemon daemon = new TCKDaemon();
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if ("-send".equals(arg)) {
+				StringBuilder command = new StringBuilder();
+				for (int j = i + 1; j < args.length; j++) {
+					command.append(j > i + 1 ? " " : "").append(args[j]);
+				}
+				System.exit(send(daemon.port, command.toString()));
+			}
+			if (i == args.length - 1) {
+				throw new IllegalArgumentException("Missing value for: " + arg);
+			}
+			String value = args[++i];
+			if ("-port".equals(arg)) {
+				daemon.port = Integer.parseInt(value);
+			} else if ("-suite".equals(arg)) {
+				daemon.suiteFile = new File(value);
+			} else if ("-dir".equals(arg)) {
+				daemon.dir = new File(value);
+			} else if ("-properties".equals(arg)) {
+				daemon.propertiesFile = new File(value);
+			} else if ("-warmup".equals(arg)) {
+				daemon.warmupJob = value.trim();
+			} else {
+				throw new IllegalArgumentException("Unknown argument: " + arg);
+			}
+		}
+		daemon.serve();
+		System.exit(0);
+	}
+
+	/**
+	 * Sends one command to the daemon, printing its answer.
+	 *
+	 * @return The exit code of the command, or 2 if the daemon didn't give one.
+	 */
+	public static int send(int port, String command) throws IOException {
+		Socket socket = new Socket(InetAddress.getByName(null), port);
+		try {
+			PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"), true);
+			out.println(command);
+			BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.startsWith(EXIT)) {
+					return Integer.parseInt(line.substring(EXIT.length()).trim());
+				}
+				System.out.println(line);
+			}
+			return 2;
+		} finally {
+			socket.close();
+		}
+	}
+
+	/**
+	 * Warms up, then serves commands from the loopback interface, one at a time, until shut down.
+	 */
+	public void serve() throws Exception {
+		long start = System.currentTimeMillis();
+		loadProperties();
+		jobOperator = BatchRuntime.getJobOperator();
+		if (warmupJob.length() > 0) {
+			// Boots the CDI container and the job repository along the way
+			TCKJobExecutionWrapper warmup = new JobOperatorBridge().startJobAndWaitForResult(warmupJob, new Properties());
+			logger.info("Warmup job " + warmupJob + " ended with: " + warmup.getBatchStatus());
+		}
+		ServerSocket server = new ServerSocket(port, 0, InetAddress.getByName(null));
+		logger.info("Warmed up in " + (System.currentTimeMillis() - start) + " ms, listening on port " + port);
+		try {
+			boolean serving = true;
+			while (serving) {
+				Socket socket = server.accept();
+				try {
+					serving = handle(socket);
+				} catch (IOException e) {
+					logger.log(Level.WARNING, "Lost the connection to the client", e);
+				} finally {
+					socket.close();
+				}
+			}
+		} finally {
+			server.close();
+		}
+		logger.info("Shut down");
+	}
+
+	/**
+	 * @return false once shut down.
+	 */
+	private boolean handle(Socket socket) throws IOException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"), true);
+		String line = in.readLine();
+		if (line == null) {
+			return true;
+		}
+		String[] words = line.trim().split("\\s+");
+		String command = words[0];
+		logger.info("Received: " + line.trim());
+		try {
+			if ("run".equals(command)) {
+				out.println(EXIT + run(Arrays.asList(words).subList(1, words.length), out));
+				// Once the client has its result, so it doesn't wait for it
+				reset();
+			} else if ("reset".equals(command)) {
+				reset();
+				out.println(EXIT + 0);
+			} else if ("shutdown".equals(command)) {
+				reset();
+				out.println(EXIT + 0);
+				return false;
+			} else {
+				out.println("Unknown command: " + command + ", expected run, reset or shutdown");
+				out.println(EXIT + 2);
+			}
+		} catch (Exception e) {
+			logger.log(Level.WARNING, "Failed: " + line.trim(), e);
+			out.println("Failed: " + e);
+			out.println(EXIT + 2);
+		}
+		return true;
+	}
+
+	/**
+	 * @return 0 if all the tests passed, 1 otherwise.
+	 */
+	private int run(List<String> targets, PrintWriter out) throws Exception {
+		loadProperties();
+		runCount++;
+
+		XmlSuite suite = new XmlSuite();
+		suite.setName("TCK daemon run " + runCount);
+		XmlTest test = new XmlTest(suite);
+		test.setName(suite.getName());
+		test.setXmlClasses(new ArrayList<XmlClass>(getClasses(targets, suite).values()));
+
+		File outputDir = new File(dir, "testng");
+		TestNG testng = new TestNG();
+		testng.setUseDefaultListeners(false);
+		testng.setOutputDirectory(outputDir.getAbsolutePath());
+		testng.setXmlSuites(Collections.singletonList(suite));
+		testng.addListener(new XMLReporter());
+		// As both a test listener and a reporter
+		testng.addListener((Object) new WallTimeReporter());
+		ResultPrinter printer = new ResultPrinter(out);
+		testng.addListener(printer);
+
+		long start = System.currentTimeMillis();
+		try {
+			testng.run();
+		} finally {
+			// Else TestNG keeps the Reporter output of every run in memory
+			Reporter.clear();
+		}
+		String summary = "Tests run: " + printer.total + ", Failures: " + printer.failed + ", Skipped: " + printer.skipped
+				+ ", Time: " + (System.currentTimeMillis() - start) + " ms, reports in: " + outputDir;
+		logger.info(summary);
+		out.println(summary);
+		return printer.failed > 0 ? 1 : 0;
+	}
+
+	/**
+	 * The given classes, narrowed down to the given methods, if any, or else the classes of the suite.
+	 */
+	private Map<String, XmlClass> getClasses(List<String> targets, XmlSuite suite) throws Exception {
+		if (targets.isEmpty()) {
+			if (suiteFile == null) {
+				throw new IllegalArgumentException("No test class to run, and no -suite to run instead");
+			}
+			XmlSuite parsed = new Parser(suiteFile.getPath()).parseToList().get(0);
+			suite.setParameters(parsed.getParameters());
+			return ShardedSuiteRunner.getClasses(parsed);
+		}
+		Map<String, XmlClass> classes = new LinkedHashMap<String, XmlClass>();
+		for (String target : targets) {
+			int hash = target.indexOf('#');
+			String className = hash < 0 ? target : target.substring(0, hash);
+			XmlClass xmlClass = classes.get(className);
+			if (xmlClass == null) {
+				xmlClass = new XmlClass(className);
+				classes.put(className, xmlClass);
+			}
+			if (hash >= 0) {
+				List<XmlInclude> includes = new ArrayList<XmlInclude>(xmlClass.getIncludedMethods());
+				includes.add(new XmlInclude(target.substring(hash + 1)));
+				xmlClass.setIncludedMethods(includes);
+			}
+		}
+		return classes;
+	}
+
+	/**
+	 * Stops the executions still running, then drops the state of the TCK and of the runtime.
+	 */
+	private void reset() throws Exception {
+		List<Long> running = getRunningExecutions();
+		for (Long executionId : running) {
+			try {
+				jobOperator.stop(executionId);
+			} catch (JobExecutionNotRunningException e) {
+				// Ended in the meantime
+			}
+		}
+		long deadline = System.currentTimeMillis() + STOP_TIMEOUT_MILLIS;
+		while (!running.isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+			running = getRunningExecutions();
+		}
+		if (!running.isEmpty()) {
+			logger.warning("Gave up waiting for executions to stop: " + running);
+		}
+
+		SignalBulletinBoard.clearAll();
+
+		for (RuntimeResetHook hook : ServiceGateway.getRuntimeResetHookServices()) {
+			logger.fine("Calling reset hook: " + hook.getClass().getName());
+			hook.reset(jobOperator);
+		}
+	}
+
+	private List<Long> getRunningExecutions() {
+		List<Long> running = new ArrayList<Long>();
+		for (String jobName : jobOperator.getJobNames()) {
+			try {
+				running.addAll(jobOperator.getRunningExecutions(jobName));
+			} catch (NoSuchJobException e) {
+				// No longer known, so not running
+			}
+		}
+		return running;
+	}
+
+	private void loadProperties() throws IOException {
+		if (propertiesFile == null) {
+			return;
+		}
+		Properties props = new Properties();
+		InputStream in = new FileInputStream(propertiesFile);
+		try {
+			props.load(in);
+		} finally {
+			in.close();
+		}
+		for (String name : props.stringPropertyNames()) {
+			System.setProperty(name, props.getProperty(name));
+		}
+	}
+
+	/**
+	 * Sends one line per test to the client as the tests end.
+	 */
+	private static class ResultPrinter implements ITestListener {
+
+		private final PrintWriter out;
+		int total;
+		int failed;
+		int skipped;
+
+		ResultPrinter(PrintWriter out) {
+			this.out = out;
+		}
+
+		@Override
+		public void onStart(ITestContext context) {
+		}
+
+		@Override
+		public void onTestStart(ITestResult result) {
+		}
+
+		@Override
+		public synchronized void onTestSuccess(ITestResult result) {
+			total++;
+			print("PASSED", result, "");
+		}
+
+		@Override
+		public synchronized void onTestFailure(ITestResult result) {
+			total++;
+			failed++;
+			print("FAILED", result, result.getThrowable() != null ? ": " + result.getThrowable() : "");
+		}
+
+		@Override
+		public synchronized void onTestSkipped(ITestResult result) {
+			total++;
+			skipped++;
+			print("SKIPPED", result, "");
+		}
+
+		@Override
+		public synchronized void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+			onTestSuccess(result);
+		}
+
+		@Override
+		public void onFinish(ITestContext context) {
+		}
+
+		private void print(String status, ITestResult result, String detail) {
+			out.println(status + " " + result.getTestClass().getName() + "#" + result.getMethod().getMethodName()
+					+ " (" + (result.getEndMillis() - result.getStartMillis()) + " ms)" + detail);
+		}
+	}
+}
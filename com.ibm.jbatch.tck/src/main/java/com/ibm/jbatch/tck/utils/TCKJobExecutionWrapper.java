@@ -28,15 +28,33 @@ import javax.batch.runtime.BatchStatus;
 import javax.batch.runtime.JobExecution;
 import javax.batch.runtime.JobInstance;
 
+import com.ibm.jbatch.tck.spi.JobExecutionTimeline;
+
 public class TCKJobExecutionWrapper implements TCKJobExecution {
 
 	private JobExecution jobExecution = null;
 	private JobOperator jobOp = null;
+	private JobExecutionTimeline timeline = null;
+	// An execution never moves to another instance, so look it up once
+	private long instanceId = -1;
 	
 	public TCKJobExecutionWrapper(JobExecution jobExecution, JobOperator jobOp) {
 		this.jobExecution = jobExecution;
 		this.jobOp = jobOp;
 	}
+
+	public TCKJobExecutionWrapper(JobExecution jobExecution, JobOperator jobOp, JobExecutionTimeline timeline) {
+		this(jobExecution, jobOp);
+		this.timeline = timeline;
+	}
+
+	/**
+	 * @return The batch status transitions observed while waiting for this execution, or null
+	 * if the configured waiter doesn't record them.
+	 */
+	public JobExecutionTimeline getTimeline() {
+		return timeline;
+	}
 	
 	@Override
 	public long getExecutionId() {
@@ -85,9 +103,21 @@ public class TCKJobExecutionWrapper implements TCKJobExecution {
 
 	@Override
 	public long getInstanceId() throws NoSuchJobExecutionException, JobSecurityException {
-		long jobExecutionId = jobExecution.getExecutionId();
-		JobInstance jobInstance = jobOp.getJobInstance(jobExecutionId);
-		return jobInstance.getInstanceId();		
+		if (instanceId == -1) {
+			long jobExecutionId = jobExecution.getExecutionId();
+			JobInstance jobInstance = jobOp.getJobInstance(jobExecutionId);
+			instanceId = jobInstance.getInstanceId();
+		}
+		return instanceId;		
+	}
+
+	/**
+	 * Reads the current state of this execution, its instance and its steps in one pass.
+	 */
+	public ExecutionSnapshot getSnapshot() throws NoSuchJobExecutionException, JobSecurityException {
+		ExecutionSnapshot snapshot = ExecutionSnapshot.load(jobOp, jobExecution.getExecutionId());
+		instanceId = snapshot.getInstanceId();
+		return snapshot;
 	}
 
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What the runs so far learned about each test method, i.e. its duration and the jobs it started,
+ * merged from the per test rows of tck-wall-time.json reports (see {@link WallTimeReporter}).  A report replaces the entries
+ * of the methods it ran and keeps those of the methods it didn't, so that a run of only some of the
+ * tests, e.g. with -changed, doesn't erase or shrink what earlier runs learned about the others.
+ *
+ * {@link ShardedSuiteRunner} keeps it in tck-test-index.json, in the same row format as the reports,
+ * and class durations are the sums of the durations of their methods.  {@link AffectedTestIndex}
+ * selects tests by their jobs.
+ */
+public class TestHistory {
+
+	private final static String sourceClass = TestHistory.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	public static final String INDEX_FILE = "tck-test-index.json";
+
+	private static final Pattern TEST_ROW = Pattern.compile("\\{\"name\": \"([^\"]+#[^\"]+)\".*?\"total\": (\\d+)(?:.*\"jobs\": \\[([^\\]]*)\\])?");
+	private static final Pattern QUOTED = Pattern.compile("\"([^\"]*)\"");
+
+	// Sorted, so that the saved index only depends on its content
+	private final Map<String, Long> durations = new TreeMap<String, Long>();
+	private final Map<String, Set<String>> jobs = new HashMap<String, Set<String>>();
+
+	/**
+	 * Merges the reports from the least to the most recently modified one, files modified at the same
+	 * time in the given order, so that the latest run wins whatever the order of the files.
+	 * Missing files are skipped.
+	 */
+	public static TestHistory load(List<File> files) throws IOException {
+		List<File> existing = new ArrayList<File>();
+		for (File file : files) {
+			if (file.isFile()) {
+				existing.add(file);
+			}
+		}
+		final Map<File, Long> modified = new HashMap<File, Long>();
+		for (File file : existing) {
+			modified.put(file, file.lastModified());
+		}
+		// A stable sort, which keeps the given order of files modified at the same time
+		Collections.sort(existing, new Comparator<File>() {
+			@Override
+			public int compare(File f1, File f2) {
+				return modified.get(f1).compareTo(modified.get(f2));
+			}
+		});
+		TestHistory history = new TestHistory();
+		for (File file : existing) {
+			history.merge(file);
+		}
+		logger.info("Read the history of " + history.durations.size() + " test methods from: " + existing);
+		return history;
+	}
+
+	/**
+	 * Replaces the entries of the test methods the report has rows for.
+	 */
+	public void merge(File report) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(report), "UTF-8"));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				Matcher row = TEST_ROW.matcher(line);
+				if (row.find()) {
+					durations.put(row.group(1), Long.valueOf(row.group(2)));
+					Set<String> testJobs = new LinkedHashSet<String>();
+					if (row.group(3) != null) {
+						Matcher job = QUOTED.matcher(row.group(3));
+						while (job.find()) {
+							testJobs.add(job.group(1));
+						}
+					}
+					jobs.put(row.group(1), testJobs);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	public void save(File file) throws IOException {
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+		try {
+			out.println("{");
+			out.println("  \"unit\": \"ms\",");
+			out.println("  \"tests\": [");
+			int i = 0;
+			for (Map.Entry<String, Long> test : durations.entrySet()) {
+				out.print("    {\"name\": \"" + test.getKey() + "\", \"total\": " + test.getValue() + ", \"jobs\": [");
+				int j = 0;
+				for (String job : jobs.get(test.getKey())) {
+					out.print((j++ > 0 ? ", \"" : "\"") + job + "\"");
+				}
+				out.print("]}");
+				out.println(++i < durations.size() ? "," : "");
+			}
+			out.println("  ]");
+			out.println("}");
+		} finally {
+			out.close();
+		}
+	}
+
+	public boolean isEmpty() {
+		return durations.isEmpty();
+	}
+
+	/**
+	 * @return The jobs the test method, <i>class</i>#<i>method</i>, started the last time it ran, or
+	 *         null if it never ran.
+	 */
+	public Set<String> getJobs(String testMethod) {
+		return jobs.get(testMethod);
+	}
+
+	/**
+	 * @return The duration of each test method, by <i>class</i>#<i>method</i>, and of each class, by
+	 *         class name, as the sum of its methods.
+	 */
+	public Map<String, Long> getDurations() {
+		Map<String, Long> all = new TreeMap<String, Long>(durations);
+		for (Map.Entry<String, Long> test : durations.entrySet()) {
+			String className = test.getKey().substring(0, test.getKey().indexOf('#'));
+			Long classDuration = all.get(className);
+			all.put(className, (classDuration != null ? classDuration : 0) + test.getValue());
+		}
+		return all;
+	}
+}
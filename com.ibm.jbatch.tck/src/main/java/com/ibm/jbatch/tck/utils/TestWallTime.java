@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.utils;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.batch.runtime.JobExecution;
+
+/**
+ * Where the wall time of one test method went, as seen by the JobOperatorBridge:
+ * <ul>
+ *   <li>submit: time spent inside JobOperator start() and restart()</li>
+ *   <li>queue: from the creation of each execution until it was STARTED</li>
+ *   <li>execution: from the start of each execution until it ended</li>
+ *   <li>waiter overhead: from the end of each execution until the waiter noticed</li>
+ *   <li>sleep: time the test thread explicitly waited, i.e. between status polls and for artifact signals</li>
+ * </ul>
+ * It also counts the signals of the {@link com.ibm.jbatch.tck.artifacts.common.SignalBulletinBoard}
+ * the test gave up waiting for, which in SE, where the artifacts can reach the board, means they
+ * were slow to get there.
+ * The categories overlap when a test runs several executions at once, and
+ * queue and execution times come from the timestamps of the job repository.
+ * Along the way, it keeps the names of the jobs the test started, which is what
+ * {@link AffectedTestIndex} selects tests by.
+ *
+ * The bridge records into the instance bound to the current thread by
+ * {@link WallTimeReporter}, and records nothing when no reporter is active.
+ */
+public final class TestWallTime {
+
+	private static final ThreadLocal<TestWallTime> current = new ThreadLocal<TestWallTime>();
+
+	private long submitNanos;
+	private long queueMillis;
+	private long executionMillis;
+	private long waiterOverheadMillis;
+	private long sleepNanos;
+	private int signalTimeouts;
+	private final Set<Long> queued = new HashSet<Long>();
+	private final Set<Long> ended = new HashSet<Long>();
+	private final Set<String> jobNames = new LinkedHashSet<String>();
+
+	/**
+	 * @return The instance of the test running on this thread, or null when wall time isn't being reported.
+	 */
+	public static TestWallTime current() {
+		return current.get();
+	}
+
+	static TestWallTime begin() {
+		TestWallTime wallTime = new TestWallTime();
+		current.set(wallTime);
+		return wallTime;
+	}
+
+	static void end() {
+		current.remove();
+	}
+
+	public static void recordSubmit(long submitStartNanos) {
+		TestWallTime wallTime = current();
+		if (wallTime != null) {
+			wallTime.addSubmit(System.nanoTime() - submitStartNanos);
+		}
+	}
+
+	public static void recordSleep(long sleepStartNanos) {
+		TestWallTime wallTime = current();
+		if (wallTime != null) {
+			wallTime.addSleep(System.nanoTime() - sleepStartNanos);
+		}
+	}
+
+	public static void recordSignalTimeout() {
+		TestWallTime wallTime = current();
+		if (wallTime != null) {
+			wallTime.addSignalTimeout();
+		}
+	}
+
+	public static void recordJobName(String jobName) {
+		TestWallTime wallTime = current();
+		if (wallTime != null) {
+			wallTime.addJobName(jobName);
+		}
+	}
+
+	public synchronized void addJobName(String jobName) {
+		jobNames.add(jobName);
+	}
+
+	public synchronized void addSubmit(long nanos) {
+		submitNanos += nanos;
+	}
+
+	public synchronized void addSleep(long nanos) {
+		sleepNanos += nanos;
+	}
+
+	public synchronized void addSignalTimeout() {
+		signalTimeouts++;
+	}
+
+	/**
+	 * Adds the queue time of the execution once it has started, and its execution time and the
+	 * waiter overhead once it has ended.  Each execution is only counted once, however often it
+	 * is observed.
+	 *
+	 * @param observedMillis When the bridge got hold of this state of the execution.
+	 */
+	public synchronized void addObservation(JobExecution jobExecution, long observedMillis) {
+		Long executionId = jobExecution.getExecutionId();
+		long created = jobExecution.getCreateTime() != null ? jobExecution.getCreateTime().getTime() : -1;
+		long started = jobExecution.getStartTime() != null ? jobExecution.getStartTime().getTime() : -1;
+		long ended = jobExecution.getEndTime() != null ? jobExecution.getEndTime().getTime() : -1;
+		if (created >= 0 && started >= 0 && queued.add(executionId)) {
+			queueMillis += Math.max(0, started - created);
+		}
+		if (started >= 0 && ended >= 0 && this.ended.add(executionId)) {
+			executionMillis += Math.max(0, ended - started);
+			waiterOverheadMillis += Math.max(0, observedMillis - ended);
+		}
+	}
+
+	public synchronized long getSubmitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(submitNanos);
+	}
+
+	public synchronized long getQueueMillis() {
+		return queueMillis;
+	}
+
+	public synchronized long getExecutionMillis() {
+		return executionMillis;
+	}
+
+	public synchronized long getWaiterOverheadMillis() {
+		return waiterOverheadMillis;
+	}
+
+	public synchronized long getSleepMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(sleepNanos);
+	}
+
+	public synchronized int getSignalTimeouts() {
+		return signalTimeouts;
+	}
+
+	public synchronized int getExecutionCount() {
+		return ended.size();
+	}
+
+	public synchronized Set<String> getJobNames() {
+		return new LinkedHashSet<String>(jobNames);
+	}
+}
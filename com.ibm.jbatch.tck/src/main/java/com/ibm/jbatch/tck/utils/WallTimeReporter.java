@@ -0,0 +1,331 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+*/
+package com.ibm.jbatch.tck.utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import com.ibm.jbatch.tck.ann.SpecRef;
+import com.ibm.jbatch.tck.ann.TCKTest;
+
+/**
+ * TestNG listener breaking down the wall time of every test method into the categories of
+ * {@link TestWallTime}, and reporting them per test, per test class and per spec section
+ * (from the @TCKTest/@SpecRef metadata) in tck-wall-time.json and tck-wall-time.html
+ * in the TestNG output directory.
+ *
+ * "other" is whatever wall time is left once the other categories are taken out, i.e.
+ * mostly the time the test itself spent querying and checking the job repository.
+ * "signalTimeouts" is not a time but the number of signals the tests gave up waiting for.
+ *
+ * The per test rows also list the jobs each test started, for {@link AffectedTestIndex}.
+ */
+public class WallTimeReporter implements ITestListener, IReporter {
+
+	private final static String sourceClass = WallTimeReporter.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	public static final String JSON_REPORT = "tck-wall-time.json";
+	public static final String HTML_REPORT = "tck-wall-time.html";
+
+	private static final String WALL_TIME_ATTRIBUTE = TestWallTime.class.getName();
+	private static final String NO_SPEC_SECTION = "(none)";
+
+	private static final String[] COLUMNS = {"tests", "total", "submit", "queue", "execution", "waiterOverhead", "sleep", "other", "signalTimeouts"};
+
+	private final List<Row> tests = Collections.synchronizedList(new ArrayList<Row>());
+
+	@Override
+	public void onStart(ITestContext context) {
+	}
+
+	@Override
+	public void onTestStart(ITestResult result) {
+		result.setAttribute(WALL_TIME_ATTRIBUTE, TestWallTime.begin());
+	}
+
+	@Override
+	public void onTestSuccess(ITestResult result) {
+		testEnded(result);
+	}
+
+	@Override
+	public void onTestFailure(ITestResult result) {
+		testEnded(result);
+	}
+
+	@Override
+	public void onTestSkipped(ITestResult result) {
+		testEnded(result);
+	}
+
+	@Override
+	public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+		testEnded(result);
+	}
+
+	@Override
+	public void onFinish(ITestContext context) {
+	}
+
+	private void testEnded(ITestResult result) {
+		TestWallTime wallTime = (TestWallTime) result.getAttribute(WALL_TIME_ATTRIBUTE);
+		if (wallTime == null) {
+			// Skipped without ever being started
+			return;
+		}
+		TestWallTime.end();
+
+		Method method = result.getMethod().getConstructorOrMethod().getMethod();
+		Row row = new Row(method.getDeclaringClass().getName() + "#" + method.getName());
+		row.className = method.getDeclaringClass().getName();
+		row.specSections = getSpecSections(method);
+		row.tests = 1;
+		row.total = result.getEndMillis() - result.getStartMillis();
+		row.submit = wallTime.getSubmitMillis();
+		row.queue = wallTime.getQueueMillis();
+		row.execution = wallTime.getExecutionMillis();
+		row.waiterOverhead = wallTime.getWaiterOverheadMillis();
+		row.sleep = wallTime.getSleepMillis();
+		row.other = Math.max(0, row.total - row.submit - row.queue - row.execution - row.waiterOverhead - row.sleep);
+		row.signalTimeouts = wallTime.getSignalTimeouts();
+		row.jobNames = new ArrayList<String>(wallTime.getJobNames());
+		tests.add(row);
+	}
+
+	private static List<String> getSpecSections(Method method) {
+		List<String> sections = new ArrayList<String>();
+		TCKTest tckTest = method.getAnnotation(TCKTest.class);
+		if (tckTest != null) {
+			for (SpecRef specRef : tckTest.specRefs()) {
+				String section = specRef.version() + " " + specRef.section();
+				if (!sections.contains(section)) {
+					sections.add(section);
+				}
+			}
+		}
+		if (sections.isEmpty()) {
+			sections.add(NO_SPEC_SECTION);
+		}
+		return sections;
+	}
+
+	@Override
+	public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+		List<Row> byTest;
+		synchronized (tests) {
+			byTest = new ArrayList<Row>(tests);
+		}
+		Map<String, Row> byClass = new LinkedHashMap<String, Row>();
+		Map<String, Row> bySection = new LinkedHashMap<String, Row>();
+		Row suiteTotal = new Row("suite");
+		for (Row test : byTest) {
+			rollUp(byClass, test.className, test);
+			// A test covering several sections counts fully in each of them
+			for (String section : test.specSections) {
+				rollUp(bySection, section, test);
+			}
+			suiteTotal.add(test);
+		}
+
+		File dir = new File(outputDirectory);
+		dir.mkdirs();
+		try {
+			writeJson(new File(dir, JSON_REPORT), suiteTotal, byTest, byClass.values(), bySection.values());
+			writeHtml(new File(dir, HTML_REPORT), suiteTotal, byTest, byClass.values(), bySection.values());
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Could not write the wall time report to: " + dir, e);
+		}
+	}
+
+	private static void rollUp(Map<String, Row> rows, String name, Row test) {
+		Row row = rows.get(name);
+		if (row == null) {
+			row = new Row(name);
+			rows.put(name, row);
+		}
+		row.add(test);
+	}
+
+	private static List<Row> slowestFirst(Collection<Row> rows) {
+		List<Row> sorted = new ArrayList<Row>(rows);
+		Collections.sort(sorted, new Comparator<Row>() {
+			@Override
+			public int compare(Row r1, Row r2) {
+				return r1.total < r2.total ? 1 : (r1.total == r2.total ? 0 : -1);
+			}
+		});
+		return sorted;
+	}
+
+	private static void writeJson(File file, Row suiteTotal, List<Row> byTest, Collection<Row> byClass, Collection<Row> bySection) throws IOException {
+		PrintWriter out = open(file);
+		try {
+			out.println("{");
+			out.println("  \"unit\": \"ms\",");
+			out.print("  \"suite\": ");
+			out.print(toJson(suiteTotal));
+			out.println(",");
+			writeJsonArray(out, "tests", slowestFirst(byTest), ",");
+			writeJsonArray(out, "classes", slowestFirst(byClass), ",");
+			writeJsonArray(out, "specSections", slowestFirst(bySection), "");
+			out.println("}");
+		} finally {
+			out.close();
+		}
+	}
+
+	private static void writeJsonArray(PrintWriter out, String name, List<Row> rows, String separator) {
+		out.println("  \"" + name + "\": [");
+		for (int i = 0; i < rows.size(); i++) {
+			out.print("    ");
+			out.print(toJson(rows.get(i)));
+			out.println(i < rows.size() - 1 ? "," : "");
+		}
+		out.println("  ]" + separator);
+	}
+
+	private static String toJson(Row row) {
+		StringBuilder json = new StringBuilder("{\"name\": \"").append(escapeJson(row.name)).append('"');
+		long[] values = row.values();
+		for (int i = 0; i < COLUMNS.length; i++) {
+			json.append(", \"").append(COLUMNS[i]).append("\": ").append(values[i]);
+		}
+		if (row.jobNames != null) {
+			json.append(", \"jobs\": [");
+			for (int i = 0; i < row.jobNames.size(); i++) {
+				json.append(i > 0 ? ", \"" : "\"").append(escapeJson(row.jobNames.get(i))).append('"');
+			}
+			json.append(']');
+		}
+		return json.append('}').toString();
+	}
+
+	private static String escapeJson(String s) {
+		StringBuilder escaped = new StringBuilder();
+		for (char c : s.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				escaped.append('\\').append(c);
+			} else if (c < 0x20) {
+				escaped.append(String.format("\\u%04x", (int) c));
+			} else {
+				escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
+	private static void writeHtml(File file, Row suiteTotal, List<Row> byTest, Collection<Row> byClass, Collection<Row> bySection) throws IOException {
+		PrintWriter out = open(file);
+		try {
+			out.println("<html><head><title>TCK wall time</title>");
+			out.println("<style>table{border-collapse:collapse} td,th{border:1px solid #ccc;padding:2px 6px} td.n{text-align:right}</style>");
+			out.println("</head><body>");
+			out.println("<h1>TCK wall time (ms)</h1>");
+			writeHtmlTable(out, "Suite", Collections.singletonList(suiteTotal));
+			writeHtmlTable(out, "Per class", slowestFirst(byClass));
+			writeHtmlTable(out, "Per spec section", slowestFirst(bySection));
+			writeHtmlTable(out, "Per test", slowestFirst(byTest));
+			out.println("</body></html>");
+		} finally {
+			out.close();
+		}
+	}
+
+	private static void writeHtmlTable(PrintWriter out, String title, List<Row> rows) {
+		out.println("<h2>" + title + "</h2>");
+		out.print("<table><tr><th>name</th>");
+		for (String column : COLUMNS) {
+			out.print("<th>" + column + "</th>");
+		}
+		out.println("</tr>");
+		for (Row row : rows) {
+			out.print("<tr><td>" + escapeHtml(row.name) + "</td>");
+			for (long value : row.values()) {
+				out.print("<td class=\"n\">" + value + "</td>");
+			}
+			out.println("</tr>");
+		}
+		out.println("</table>");
+	}
+
+	private static String escapeHtml(String s) {
+		return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+
+	private static PrintWriter open(File file) throws IOException {
+		return new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+	}
+
+	private static class Row {
+		final String name;
+		String className;
+		List<String> specSections;
+		List<String> jobNames;
+		long tests;
+		long total;
+		long submit;
+		long queue;
+		long execution;
+		long waiterOverhead;
+		long sleep;
+		long other;
+		long signalTimeouts;
+
+		Row(String name) {
+			this.name = name;
+		}
+
+		void add(Row row) {
+			tests += row.tests;
+			total += row.total;
+			submit += row.submit;
+			queue += row.queue;
+			execution += row.execution;
+			waiterOverhead += row.waiterOverhead;
+			sleep += row.sleep;
+			other += row.other;
+			signalTimeouts += row.signalTimeouts;
+		}
+
+		long[] values() {
+			return new long[] {tests, total, submit, queue, execution, waiterOverhead, sleep, other, signalTimeouts};
+		}
+	}
+}